@@ -88,9 +88,8 @@ public class App
                .toBlocking()
                .subscribe(trade -> System.out.println("ORCL trade: " + trade));
 
-        // get total value of ORCL trades using Coherence filter in values() call
-        MathObservable.averageDouble(rxCache.values(equal(Trade::getSymbol, "ORCL"))
-                                            .map(trade -> trade.getPurchaseValue()))
+        // get average value of ORCL trades using Coherence filter and extractor in values() call
+        MathObservable.averageDouble(rxCache.values(equal(Trade::getSymbol, "ORCL"), Trade::getPurchaseValue))
                       .toBlocking()
                       .subscribe(total -> System.out.printf("Average Purchase Value of ORCL trades: $%10.2f\n", total));
 
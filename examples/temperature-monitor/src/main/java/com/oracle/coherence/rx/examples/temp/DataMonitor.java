@@ -23,6 +23,9 @@ import com.oracle.coherence.rx.ObservableMapListener;
 
 import com.tangosol.net.NamedCache;
 import com.tangosol.util.UUID;
+import com.tangosol.util.ValueExtractor;
+
+import rx.subscriptions.CompositeSubscription;
 
 import javax.swing.JComponent;
 import javax.swing.JFrame;
@@ -85,47 +88,46 @@ public class DataMonitor
      */
     private void addRxObservers()
         {
-        // create a new ObservableMapLister which is a hot observable
-        m_listener = ObservableMapListener.create();
+        // create a new ObservableMapLister which is a hot observable, and is
+        // registered with the cache while it has subscribers
+        m_listener = ObservableMapListener.create(f_cache);
 
         // subscribe to get the current temperature
-        m_listener.map(entry -> entry.getNewEntry().getValue())
+        f_subscriptions.add(m_listener.map(entry -> entry.getNewEntry().getValue())
                 .subscribe(value ->
                     {
                     updateTemp(value);
                     txtProcessed.setText(String.format("%,d", f_counter.incrementAndGet()));
-                    });
+                    }));
 
-        // add subscribers for each of the gauges
+        // add subscribers for each of the gauges; the listener delivers each
+        // reading only to the subscribers for its device
         for (int i = 0; i < Utilities.GAUGES; i++)
             {
             final int nIndex = i;
             final String device = getDeviceName(i);
 
             // get an average of the last 15 seconds of readings for each device
-            m_listener.map(entry -> entry.getNewEntry().getValue())
-                .filter(reading -> reading.getDeviceId().equals(device))
+            f_subscriptions.add(m_listener.forAttribute(DEVICE_ID, device)
+                .map(entry -> entry.getNewEntry().getValue())
                 .map(DeviceReading::getTemperature)
                 .buffer(15, TimeUnit.SECONDS)
-                .subscribe(list -> atxtAvgLast15Seconds[nIndex].setText(String.format(FORMAT, getAverage(list))));
+                .subscribe(list -> atxtAvgLast15Seconds[nIndex].setText(String.format(FORMAT, getAverage(list)))));
 
             // get an average of the last 30 seconds of readings for each device
-            m_listener.map(entry -> entry.getNewEntry().getValue())
-                .filter(reading -> reading.getDeviceId().equals(device))
+            f_subscriptions.add(m_listener.forAttribute(DEVICE_ID, device)
+                .map(entry -> entry.getNewEntry().getValue())
                 .map(DeviceReading::getTemperature)
                 .buffer(30, TimeUnit.SECONDS)
-                .subscribe(list -> atxtAvgLast30Seconds[nIndex].setText(String.format(FORMAT, getAverage(list))));
+                .subscribe(list -> atxtAvgLast30Seconds[nIndex].setText(String.format(FORMAT, getAverage(list)))));
 
             // get an average of the last 60 seconds of readings for each device
-            m_listener.map(entry -> entry.getNewEntry().getValue())
-                .filter(reading -> reading.getDeviceId().equals(device))
+            f_subscriptions.add(m_listener.forAttribute(DEVICE_ID, device)
+                .map(entry -> entry.getNewEntry().getValue())
                 .map(DeviceReading::getTemperature)
                 .buffer(60, TimeUnit.SECONDS)
-                .subscribe(list -> updateTrends(nIndex, list));
+                .subscribe(list -> updateTrends(nIndex, list)));
             }
-
-        // adding the listener will tigger the above subscriptions
-        f_cache.addMapListener(m_listener);
         }
 
     /**
@@ -136,17 +138,14 @@ public class DataMonitor
         JFrame frmMain = new JFrame("CoherenceRx Demo - Data Monitor");
         frmMain.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 
-        // remove the map listener on exit
+        // unsubscribe on exit, which removes the map listener
         frmMain.addWindowListener(new WindowAdapter()
             {
             @Override
             public void windowClosing(WindowEvent e)
             {
                 super.windowClosing(e);
-                if (f_cache != null && m_listener != null)
-                {
-                    f_cache.removeMapListener(m_listener);
-                }
+                f_subscriptions.unsubscribe();
                 System.exit(0);
             }
             });
@@ -340,6 +339,12 @@ public class DataMonitor
      */
     private static final String FORMAT = "%5.1f";
 
+    /**
+     * The extractor for the device id, shared by all the per-device
+     * subscriptions so they use the same index.
+     */
+    private static final ValueExtractor<DeviceReading, String> DEVICE_ID = DeviceReading::getDeviceId;
+
     // ---- data members ----------------------------------------------------
 
     /**
@@ -381,6 +386,11 @@ public class DataMonitor
      */
     private ObservableMapListener<UUID, DeviceReading> m_listener;
 
+    /**
+     * The subscriptions to the {@link #m_listener}.
+     */
+    private final CompositeSubscription f_subscriptions = new CompositeSubscription();
+
     /**
      * Cache to read data from.
      */
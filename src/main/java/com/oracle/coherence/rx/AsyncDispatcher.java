@@ -0,0 +1,848 @@
+/*
+ * File: AsyncDispatcher.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.net.cache.CacheEvent;
+
+import com.tangosol.util.Base;
+import com.tangosol.util.MapEvent;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+
+import rx.exceptions.MissingBackpressureException;
+
+import rx.functions.Func2;
+
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An Observable that delivers the events emitted by a source Observable,
+ * typically an {@link ObservableMapListener}, to each of its subscribers
+ * asynchronously.
+ * <p>
+ * Each subscriber gets its own queue, which is filled by the thread that
+ * emits the events and drained by a worker of the specified scheduler,
+ * honoring the backpressure requested by the subscriber. The queue is either
+ * bounded, in which case the {@link Overflow} policy determines what happens
+ * when it is full, or conflating, in which case it holds at most one pending
+ * event per key.
+ * <p>
+ * A slow subscriber only delays its own events if the scheduler runs each
+ * worker on a thread of its own, as {@link rx.schedulers.Schedulers#io()} and
+ * {@link rx.schedulers.Schedulers#newThread()} do. The workers of a scheduler
+ * with a fixed number of threads, such as {@link
+ * rx.schedulers.Schedulers#computation()}, share those threads, so a slow
+ * subscriber also delays the subscribers whose workers share its thread.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+public class AsyncDispatcher<K, V>
+        extends Observable<MapEvent<K, V>>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Create AsyncDispatcher instance that gives each subscriber a bounded
+     * queue.
+     * <p>
+     * The {@link Overflow#BLOCK BLOCK} policy must not be combined with a
+     * scheduler that runs its workers on the calling thread, such as {@link
+     * rx.schedulers.Schedulers#immediate()} or {@link
+     * rx.schedulers.Schedulers#trampoline()}, as the queue could then only
+     * be drained by the thread that is blocked waiting for it to be drained.
+     *
+     * @param <K>       the type of the entry keys
+     * @param <V>       the type of the entry values
+     * @param source    the Observable that emits the events to dispatch
+     * @param cCapacity the capacity of the queue of each subscriber
+     * @param overflow  the policy to apply when the queue of a subscriber
+     *                  is full
+     * @param scheduler the scheduler to drain the queues on
+     *
+     * @return an AsyncDispatcher
+     */
+    public static <K, V> AsyncDispatcher<K, V> create(Observable<MapEvent<K, V>> source, int cCapacity,
+                                                      Overflow overflow, Scheduler scheduler)
+        {
+        if (cCapacity <= 0)
+            {
+            throw new IllegalArgumentException("the queue capacity must be positive");
+            }
+
+        return create(source, (child, cDropped) ->
+                new BoundedSubscriber<>(child, scheduler.createWorker(), cDropped, cCapacity, overflow));
+        }
+
+    /**
+     * Create AsyncDispatcher instance that gives each subscriber a conflating
+     * queue.
+     * <p>
+     * The events for a key that arrive while an earlier event for the same
+     * key is still queued are merged into it, keeping the old value of the
+     * earlier event and the new value of the later one, so the memory used by
+     * a queue is bounded by the number of distinct keys rather than by the
+     * event rate. Events that cancel each other out, such as an insert
+     * followed by a delete, are removed from the queue.
+     *
+     * @param <K>       the type of the entry keys
+     * @param <V>       the type of the entry values
+     * @param source    the Observable that emits the events to dispatch
+     * @param scheduler the scheduler to drain the queues on
+     *
+     * @return an AsyncDispatcher
+     */
+    public static <K, V> AsyncDispatcher<K, V> createConflating(Observable<MapEvent<K, V>> source,
+                                                                Scheduler scheduler)
+        {
+        return create(source, (child, cDropped) ->
+                new ConflatingSubscriber<>(child, scheduler.createWorker(), cDropped));
+        }
+
+    /**
+     * Create AsyncDispatcher instance that uses the specified function to
+     * create the queue of each subscriber.
+     *
+     * @param <K>     the type of the entry keys
+     * @param <V>     the type of the entry values
+     * @param source  the Observable that emits the events to dispatch
+     * @param factory the function that creates the queue for a subscriber,
+     *                given the subscriber and the counter of dropped events
+     *
+     * @return an AsyncDispatcher
+     */
+    protected static <K, V> AsyncDispatcher<K, V> create(Observable<MapEvent<K, V>> source,
+            Func2<Subscriber<? super MapEvent<K, V>>, AtomicLong, QueueSubscriber<K, V>> factory)
+        {
+        Set<QueueSubscriber<K, V>> setQueues = new CopyOnWriteArraySet<>();
+        AtomicLong                 cDropped  = new AtomicLong();
+
+        return new AsyncDispatcher<>(subscriber ->
+                {
+                QueueSubscriber<K, V> queue = factory.call(subscriber, cDropped);
+                queue.add(Subscriptions.create(() -> setQueues.remove(queue)));
+                setQueues.add(queue);
+
+                subscriber.add(queue);
+                subscriber.setProducer(queue::onRequest);
+                source.unsafeSubscribe(queue);
+                }, setQueues, cDropped);
+        }
+
+    /**
+     * Construct AsyncDispatcher instance.
+     *
+     * @param onSubscribe the function to execute when {@link
+     *                    #subscribe(Subscriber)} is called
+     * @param setQueues   the queues of the active subscribers
+     * @param cDropped    the counter of dropped events
+     */
+    protected AsyncDispatcher(Observable.OnSubscribe<MapEvent<K, V>> onSubscribe,
+                              Set<QueueSubscriber<K, V>> setQueues, AtomicLong cDropped)
+        {
+        super(onSubscribe);
+
+        m_setQueues = setQueues;
+        m_cDropped  = cDropped;
+        }
+
+    // ---- AsyncDispatcher methods -----------------------------------------
+
+    /**
+     * Return the total number of events that were dropped because the queue
+     * of a subscriber was full, or merged into another event by a conflating
+     * queue.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount()
+        {
+        return m_cDropped.get();
+        }
+
+    /**
+     * Return the number of events queued for the slowest subscriber, which
+     * is how far behind the source Observable that subscriber is.
+     *
+     * @return the number of events queued for the slowest subscriber
+     */
+    public int getLag()
+        {
+        int cLag = 0;
+        for (QueueSubscriber<K, V> queue : m_setQueues)
+            {
+            cLag = Math.max(cLag, queue.getSize());
+            }
+
+        return cLag;
+        }
+
+    // ---- inner enum: Overflow --------------------------------------------
+
+    /**
+     * The policies that can be applied when the queue of a subscriber is
+     * full.
+     */
+    public enum Overflow
+        {
+        /**
+         * Block the thread that emits the events until there is space in the
+         * queue. Note that this delays the delivery of the events to all the
+         * other subscribers, and may back up the cache service.
+         * <p>
+         * This policy requires a scheduler that drains the queue on another
+         * thread; with {@link rx.schedulers.Schedulers#immediate()} or {@link
+         * rx.schedulers.Schedulers#trampoline()}, the emitting thread would
+         * wait for itself.
+         */
+        BLOCK,
+
+        /**
+         * Drop the oldest event in the queue to make space for the new one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drop the new event.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Replace the queued event for the same key with the new one, or drop
+         * the oldest event in the queue if there is none.
+         */
+        KEEP_LATEST_PER_KEY,
+
+        /**
+         * Terminate the subscriber with a {@link MissingBackpressureException}.
+         */
+        ERROR
+        }
+
+    // ---- inner class: QueueSubscriber ------------------------------------
+
+    /**
+     * A subscriber to the source Observable that queues the events for a
+     * single downstream subscriber, and drains them on a worker of its own.
+     * <p>
+     * The queue itself is provided by the subclasses, and is guarded by the
+     * {@link #m_oLock lock} monitor.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     */
+    protected abstract static class QueueSubscriber<K, V>
+            extends Subscriber<MapEvent<K, V>>
+        {
+        /**
+         * Construct QueueSubscriber instance.
+         *
+         * @param child    the downstream subscriber
+         * @param worker   the worker to drain the queue on
+         * @param cDropped the counter of dropped events
+         */
+        protected QueueSubscriber(Subscriber<? super MapEvent<K, V>> child, Scheduler.Worker worker,
+                                  AtomicLong cDropped)
+            {
+            m_child    = child;
+            m_worker   = worker;
+            m_cDropped = cDropped;
+
+            add(worker);
+            }
+
+        // ---- Subscriber methods ------------------------------------------
+
+        @Override
+        public void onNext(MapEvent<K, V> evt)
+            {
+            boolean fSchedule;
+            synchronized (m_oLock)
+                {
+                if (m_fDone)
+                    {
+                    return;
+                    }
+
+                // an overflow policy may fail the subscriber instead
+                fSchedule = offer(evt) || m_fDone;
+                }
+
+            if (fSchedule)
+                {
+                schedule();
+                }
+            }
+
+        @Override
+        public void onCompleted()
+            {
+            synchronized (m_oLock)
+                {
+                m_fDone = true;
+                }
+
+            schedule();
+            }
+
+        @Override
+        public void onError(Throwable t)
+            {
+            synchronized (m_oLock)
+                {
+                m_error = t;
+                m_fDone = true;
+                }
+
+            schedule();
+            }
+
+        // ---- QueueSubscriber methods --------------------------------------
+
+        /**
+         * Add the specified number of events to the number of events
+         * requested by the downstream subscriber.
+         *
+         * @param n the number of additional events requested
+         */
+        protected void onRequest(long n)
+            {
+            if (n > 0)
+                {
+                long cRequested;
+                long cNew;
+                do
+                    {
+                    cRequested = m_cRequested.get();
+                    cNew       = cRequested + n < 0 ? Long.MAX_VALUE : cRequested + n;
+                    }
+                while (!m_cRequested.compareAndSet(cRequested, cNew));
+
+                schedule();
+                }
+            }
+
+        /**
+         * Return the number of queued events.
+         *
+         * @return the number of queued events
+         */
+        protected int getSize()
+            {
+            synchronized (m_oLock)
+                {
+                return size();
+                }
+            }
+
+        /**
+         * Add the specified event to the queue.
+         * <p>
+         * This method is called while holding the lock.
+         *
+         * @param evt the event to add
+         *
+         * @return {@code true} if the queue has changed
+         */
+        protected abstract boolean offer(MapEvent<K, V> evt);
+
+        /**
+         * Remove and return the first event in the queue.
+         * <p>
+         * This method is called while holding the lock.
+         *
+         * @return the first event, or {@code null} if the queue is empty
+         */
+        protected abstract MapEvent<K, V> poll();
+
+        /**
+         * Return the number of queued events.
+         * <p>
+         * This method is called while holding the lock.
+         *
+         * @return the number of queued events
+         */
+        protected abstract int size();
+
+        // ---- helpers -----------------------------------------------------
+
+        /**
+         * Terminate the downstream subscriber with the specified error once
+         * it has been scheduled, discarding the queued events.
+         * <p>
+         * This method must be called while holding the lock.
+         *
+         * @param t the error to terminate the downstream subscriber with
+         */
+        protected void fail(Throwable t)
+            {
+            m_error = t;
+            m_fDone = true;
+            }
+
+        /**
+         * Schedule the queue to be drained, unless it is already being
+         * drained.
+         */
+        protected void schedule()
+            {
+            if (m_cWorkInProgress.getAndIncrement() == 0)
+                {
+                m_worker.schedule(this::drain);
+                }
+            }
+
+        /**
+         * Deliver as many queued events to the downstream subscriber as it
+         * has requested.
+         */
+        protected void drain()
+            {
+            Subscriber<? super MapEvent<K, V>> child = m_child;
+
+            int cMissed = 1;
+            do
+                {
+                long cRequested = m_cRequested.get();
+                long cEmitted   = 0L;
+
+                while (true)
+                    {
+                    if (child.isUnsubscribed())
+                        {
+                        return;
+                        }
+
+                    MapEvent<K, V> evt = null;
+                    boolean        fDone;
+                    Throwable      error;
+
+                    synchronized (m_oLock)
+                        {
+                        fDone = m_fDone && size() == 0;
+                        error = m_error;
+
+                        if (error == null && cEmitted != cRequested)
+                            {
+                            evt = poll();
+                            if (evt != null)
+                                {
+                                m_oLock.notifyAll();
+                                }
+                            }
+                        }
+
+                    if (error != null)
+                        {
+                        unsubscribe();
+                        child.onError(error);
+                        return;
+                        }
+
+                    if (evt == null)
+                        {
+                        if (fDone)
+                            {
+                            unsubscribe();
+                            child.onCompleted();
+                            return;
+                            }
+                        break;
+                        }
+
+                    child.onNext(evt);
+                    cEmitted++;
+                    }
+
+                if (cEmitted != 0L && cRequested != Long.MAX_VALUE)
+                    {
+                    m_cRequested.addAndGet(-cEmitted);
+                    }
+
+                cMissed = m_cWorkInProgress.addAndGet(-cMissed);
+                }
+            while (cMissed != 0);
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The downstream subscriber.
+         */
+        protected final Subscriber<? super MapEvent<K, V>> m_child;
+
+        /**
+         * The worker to drain the queue on.
+         */
+        protected final Scheduler.Worker m_worker;
+
+        /**
+         * The counter of dropped events.
+         */
+        protected final AtomicLong m_cDropped;
+
+        /**
+         * The monitor that guards the queue and the terminal state, and that
+         * is notified each time an event is removed from the queue.
+         */
+        protected final Object m_oLock = new Object();
+
+        /**
+         * The number of events requested by the downstream subscriber.
+         */
+        protected final AtomicLong m_cRequested = new AtomicLong();
+
+        /**
+         * The number of times the queue was scheduled to be drained while
+         * it was already being drained.
+         */
+        protected final AtomicInteger m_cWorkInProgress = new AtomicInteger();
+
+        /**
+         * Flag specifying whether no more events will be queued.
+         */
+        protected boolean m_fDone;
+
+        /**
+         * The error to terminate the downstream subscriber with, if any.
+         */
+        protected Throwable m_error;
+        }
+
+    // ---- inner class: BoundedSubscriber ----------------------------------
+
+    /**
+     * A QueueSubscriber that queues the events in a bounded queue, and applies
+     * an {@link Overflow} policy when it is full.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     */
+    protected static class BoundedSubscriber<K, V>
+            extends QueueSubscriber<K, V>
+        {
+        /**
+         * Construct BoundedSubscriber instance.
+         *
+         * @param child     the downstream subscriber
+         * @param worker    the worker to drain the queue on
+         * @param cDropped  the counter of dropped events
+         * @param cCapacity the capacity of the queue
+         * @param overflow  the policy to apply when the queue is full
+         */
+        protected BoundedSubscriber(Subscriber<? super MapEvent<K, V>> child, Scheduler.Worker worker,
+                                    AtomicLong cDropped, int cCapacity, Overflow overflow)
+            {
+            super(child, worker, cDropped);
+
+            m_cCapacity = cCapacity;
+            m_overflow  = overflow;
+            m_queue     = new ArrayDeque<>(Math.min(cCapacity, 1024));
+            }
+
+        // ---- QueueSubscriber methods --------------------------------------
+
+        @Override
+        protected boolean offer(MapEvent<K, V> evt)
+            {
+            if (m_queue.size() >= m_cCapacity && !makeSpace(evt))
+                {
+                return false;
+                }
+
+            m_queue.add(evt);
+            return true;
+            }
+
+        @Override
+        protected MapEvent<K, V> poll()
+            {
+            return m_queue.poll();
+            }
+
+        @Override
+        protected int size()
+            {
+            return m_queue.size();
+            }
+
+        // ---- helpers -----------------------------------------------------
+
+        /**
+         * Make space in the full queue for the specified event, according to
+         * the overflow policy.
+         * <p>
+         * This method must be called while holding the lock.
+         *
+         * @param evt the event to make space for
+         *
+         * @return {@code true} if the event should be added to the queue
+         */
+        protected boolean makeSpace(MapEvent<K, V> evt)
+            {
+            Deque<MapEvent<K, V>> queue = m_queue;
+
+            switch (m_overflow)
+                {
+                case BLOCK:
+                    while (queue.size() >= m_cCapacity && !m_fDone && !isUnsubscribed())
+                        {
+                        try
+                            {
+                            m_oLock.wait(100L);
+                            }
+                        catch (InterruptedException e)
+                            {
+                            Thread.currentThread().interrupt();
+                            return false;
+                            }
+                        }
+                    return !m_fDone && !isUnsubscribed();
+
+                case DROP_OLDEST:
+                    queue.poll();
+                    m_cDropped.incrementAndGet();
+                    return true;
+
+                case DROP_NEWEST:
+                    m_cDropped.incrementAndGet();
+                    return false;
+
+                case KEEP_LATEST_PER_KEY:
+                    for (Iterator<MapEvent<K, V>> iter = queue.descendingIterator(); iter.hasNext(); )
+                        {
+                        if (Base.equals(iter.next().getKey(), evt.getKey()))
+                            {
+                            iter.remove();
+                            m_cDropped.incrementAndGet();
+                            return true;
+                            }
+                        }
+                    queue.poll();
+                    m_cDropped.incrementAndGet();
+                    return true;
+
+                default:
+                    m_cDropped.incrementAndGet();
+                    queue.clear();
+                    fail(new MissingBackpressureException("the queue of " + m_cCapacity + " events is full"));
+                    return false;
+                }
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The capacity of the queue.
+         */
+        protected final int m_cCapacity;
+
+        /**
+         * The policy to apply when the queue is full.
+         */
+        protected final Overflow m_overflow;
+
+        /**
+         * The queued events.
+         */
+        protected final Deque<MapEvent<K, V>> m_queue;
+        }
+
+    // ---- inner class: ConflatingSubscriber -------------------------------
+
+    /**
+     * A QueueSubscriber that holds at most one pending event per key, by
+     * merging each new event into the pending event for the same key.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     */
+    protected static class ConflatingSubscriber<K, V>
+            extends QueueSubscriber<K, V>
+        {
+        /**
+         * Construct ConflatingSubscriber instance.
+         *
+         * @param child    the downstream subscriber
+         * @param worker   the worker to drain the queue on
+         * @param cDropped the counter of dropped events
+         */
+        protected ConflatingSubscriber(Subscriber<? super MapEvent<K, V>> child, Scheduler.Worker worker,
+                                       AtomicLong cDropped)
+            {
+            super(child, worker, cDropped);
+            }
+
+        // ---- QueueSubscriber methods --------------------------------------
+
+        @Override
+        protected boolean offer(MapEvent<K, V> evt)
+            {
+            Map<K, MapEvent<K, V>> mapPending = m_mapPending;
+            K                      key        = evt.getKey();
+            MapEvent<K, V>         evtPending = mapPending.get(key);
+
+            if (evtPending == null)
+                {
+                mapPending.put(key, evt);
+                return true;
+                }
+
+            MapEvent<K, V> evtMerged = merge(evtPending, evt);
+            if (evtMerged == null)
+                {
+                // neither event is delivered
+                mapPending.remove(key);
+                m_cDropped.addAndGet(2L);
+                }
+            else
+                {
+                // keeps the position of the key in the queue
+                mapPending.put(key, evtMerged);
+                m_cDropped.incrementAndGet();
+                }
+            return true;
+            }
+
+        @Override
+        protected MapEvent<K, V> poll()
+            {
+            Iterator<MapEvent<K, V>> iter = m_mapPending.values().iterator();
+            if (iter.hasNext())
+                {
+                MapEvent<K, V> evt = iter.next();
+                iter.remove();
+                return evt;
+                }
+
+            return null;
+            }
+
+        @Override
+        protected int size()
+            {
+            return m_mapPending.size();
+            }
+
+        // ---- helpers -----------------------------------------------------
+
+        /**
+         * Merge the specified events for the same key into a single event
+         * that has the old value of the earlier event and the new value of
+         * the later one.
+         * <p>
+         * If the later event is a {@link CacheEvent}, so is the merged event,
+         * which is only synthetic if both events are, and is a priming event
+         * if the later one is.
+         *
+         * @param evtFirst the earlier event
+         * @param evtNext  the later event
+         *
+         * @return the merged event, or {@code null} if the entry did not
+         *         exist either before the earlier event or after the later
+         *         one
+         */
+        protected MapEvent<K, V> merge(MapEvent<K, V> evtFirst, MapEvent<K, V> evtNext)
+            {
+            boolean fExistedBefore = evtFirst.getId() != MapEvent.ENTRY_INSERTED;
+            boolean fExistsAfter   = evtNext.getId() != MapEvent.ENTRY_DELETED;
+
+            int nId;
+            if (fExistedBefore)
+                {
+                nId = fExistsAfter ? MapEvent.ENTRY_UPDATED : MapEvent.ENTRY_DELETED;
+                }
+            else if (fExistsAfter)
+                {
+                nId = MapEvent.ENTRY_INSERTED;
+                }
+            else
+                {
+                return null;
+                }
+
+            V valueOld = fExistedBefore ? evtFirst.getOldValue() : null;
+            V valueNew = fExistsAfter ? evtNext.getNewValue() : null;
+
+            if (evtNext instanceof CacheEvent)
+                {
+                CacheEvent<K, V> evtCache   = (CacheEvent<K, V>) evtNext;
+                boolean          fSynthetic = evtCache.isSynthetic() && isSynthetic(evtFirst);
+
+                return new CacheEvent<>(evtNext.getMap(), nId, evtNext.getKey(), valueOld, valueNew,
+                                        fSynthetic, evtCache.isPriming());
+                }
+
+            return new MapEvent<>(evtNext.getMap(), nId, evtNext.getKey(), valueOld, valueNew);
+            }
+
+        /**
+         * Determine whether the specified event is a synthetic {@link
+         * CacheEvent}, such as an eviction.
+         *
+         * @param evt the event to check
+         *
+         * @return {@code true} if the event is synthetic
+         */
+        protected static boolean isSynthetic(MapEvent<?, ?> evt)
+            {
+            return evt instanceof CacheEvent && ((CacheEvent) evt).isSynthetic();
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The pending events, keyed by the key of the entry, in the order
+         * in which the first event for each key arrived.
+         */
+        protected final Map<K, MapEvent<K, V>> m_mapPending = new LinkedHashMap<>();
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The queues of the active subscribers.
+     */
+    protected final Set<QueueSubscriber<K, V>> m_setQueues;
+
+    /**
+     * The total number of events that were dropped because the queue of a
+     * subscriber was full, or merged into another event by a conflating
+     * queue.
+     */
+    protected final AtomicLong m_cDropped;
+    }
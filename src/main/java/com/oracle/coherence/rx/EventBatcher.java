@@ -0,0 +1,389 @@
+/*
+ * File: EventBatcher.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.util.MapEvent;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A Subscriber that collects the events it receives into batches, and emits
+ * each batch as a single list.
+ * <p>
+ * A batch is complete as soon as it reaches the maximum batch size, or when
+ * the maximum delay since its first event has elapsed, whichever comes
+ * first. With a delay of zero, a batch is completed as soon as the worker
+ * gets to it, with whatever events have arrived in the meantime, so the
+ * batches grow with the event rate without adding any latency.
+ * <p>
+ * The complete batches are emitted sequentially and in order on a worker of
+ * the specified scheduler, never on the thread that delivers the events,
+ * and only as the subscriber requests them. As the events cannot be held
+ * back, the complete batches the subscriber has not requested yet are
+ * queued.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+class EventBatcher<K, V>
+        extends Subscriber<MapEvent<K, V>>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct EventBatcher instance.
+     *
+     * @param subscriber      the subscriber to emit the batches to
+     * @param cMaxBatch       the maximum number of events in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before emitting it
+     * @param scheduler       the scheduler to emit the batches on
+     */
+    EventBatcher(Subscriber<? super List<MapEvent<K, V>>> subscriber, int cMaxBatch, long cMaxDelayMillis,
+                 Scheduler scheduler)
+        {
+        m_subscriber      = subscriber;
+        m_cMaxBatch       = cMaxBatch;
+        m_cMaxDelayMillis = cMaxDelayMillis;
+        m_worker          = scheduler.createWorker();
+
+        add(m_worker);
+        }
+
+    // ---- factory methods -------------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will emit the events emitted by the
+     * specified Observable in batches.
+     *
+     * @param <K>             the type of the entry keys
+     * @param <V>             the type of the entry values
+     * @param events          the Observable that emits the events to batch
+     * @param cMaxBatch       the maximum number of events in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before emitting it, or zero to
+     *                        emit the events that have arrived as soon as
+     *                        possible
+     * @param scheduler       the scheduler to emit the batches on
+     *
+     * @return an {@link Observable} that will emit the batches of events
+     */
+    static <K, V> Observable<List<MapEvent<K, V>>> batch(Observable<MapEvent<K, V>> events, int cMaxBatch,
+                                                         long cMaxDelayMillis, Scheduler scheduler)
+        {
+        if (cMaxBatch <= 0 || cMaxDelayMillis < 0)
+            {
+            throw new IllegalArgumentException("the batch size must be positive and the delay must not be negative");
+            }
+
+        return Observable.create(s ->
+                {
+                EventBatcher<K, V> batcher = new EventBatcher<>(s, cMaxBatch, cMaxDelayMillis, scheduler);
+                s.add(batcher);
+                s.setProducer(batcher::onRequest);
+                events.unsafeSubscribe(batcher);
+                });
+        }
+
+    // ---- Subscriber methods ----------------------------------------------
+
+    @Override
+    public void onNext(MapEvent<K, V> evt)
+        {
+        boolean fComplete = false;
+        long    nSchedule = -1L;
+
+        synchronized (this)
+            {
+            if (m_fDone)
+                {
+                return;
+                }
+
+            List<MapEvent<K, V>> listPending = m_listPending;
+
+            listPending.add(evt);
+            if (listPending.size() >= m_cMaxBatch)
+                {
+                m_queueComplete.add(takePending());
+                fComplete = true;
+                }
+            else if (listPending.size() == 1)
+                {
+                nSchedule = m_nBatch;
+                }
+            }
+
+        if (fComplete)
+            {
+            scheduleDrain();
+            }
+        else if (nSchedule >= 0L)
+            {
+            schedule(nSchedule);
+            }
+        }
+
+    @Override
+    public void onCompleted()
+        {
+        synchronized (this)
+            {
+            if (!m_listPending.isEmpty())
+                {
+                m_queueComplete.add(takePending());
+                }
+            m_fDone = true;
+            }
+
+        scheduleDrain();
+        }
+
+    @Override
+    public void onError(Throwable t)
+        {
+        synchronized (this)
+            {
+            m_error = t;
+            m_fDone = true;
+            }
+
+        scheduleDrain();
+        }
+
+    // ---- EventBatcher methods --------------------------------------------
+
+    /**
+     * Add the specified number of batches to the number of batches requested
+     * by the subscriber.
+     *
+     * @param n the number of additional batches requested
+     */
+    protected void onRequest(long n)
+        {
+        if (n > 0)
+            {
+            long cRequested;
+            long cNew;
+            do
+                {
+                cRequested = m_cRequested.get();
+                cNew       = cRequested + n < 0 ? Long.MAX_VALUE : cRequested + n;
+                }
+            while (!m_cRequested.compareAndSet(cRequested, cNew));
+
+            scheduleDrain();
+            }
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Schedule the pending batch to be completed once the maximum delay
+     * elapses.
+     *
+     * @param nBatch the sequence number of the pending batch
+     */
+    protected void schedule(long nBatch)
+        {
+        m_worker.schedule(() ->
+                {
+                synchronized (this)
+                    {
+                    if (nBatch != m_nBatch || m_listPending.isEmpty())
+                        {
+                        return;
+                        }
+                    m_queueComplete.add(takePending());
+                    }
+
+                scheduleDrain();
+                }, m_cMaxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+    /**
+     * Schedule the complete batches to be emitted, unless they are already
+     * being emitted.
+     */
+    protected void scheduleDrain()
+        {
+        if (m_cWorkInProgress.getAndIncrement() == 0)
+            {
+            m_worker.schedule(this::drain);
+            }
+        }
+
+    /**
+     * Emit as many complete batches to the subscriber as it has requested.
+     */
+    protected void drain()
+        {
+        Subscriber<? super List<MapEvent<K, V>>> subscriber = m_subscriber;
+
+        int cMissed = 1;
+        do
+            {
+            long cRequested = m_cRequested.get();
+            long cEmitted   = 0L;
+
+            while (true)
+                {
+                if (subscriber.isUnsubscribed())
+                    {
+                    return;
+                    }
+
+                List<MapEvent<K, V>> listBatch = null;
+                boolean              fDone;
+                Throwable            error;
+
+                synchronized (this)
+                    {
+                    fDone = m_fDone && m_queueComplete.isEmpty();
+                    error = m_error;
+
+                    if (error == null && cEmitted != cRequested)
+                        {
+                        listBatch = m_queueComplete.poll();
+                        }
+                    }
+
+                if (error != null)
+                    {
+                    unsubscribe();
+                    subscriber.onError(error);
+                    return;
+                    }
+
+                if (listBatch == null)
+                    {
+                    if (fDone)
+                        {
+                        unsubscribe();
+                        subscriber.onCompleted();
+                        return;
+                        }
+                    break;
+                    }
+
+                subscriber.onNext(listBatch);
+                cEmitted++;
+                }
+
+            if (cEmitted != 0L && cRequested != Long.MAX_VALUE)
+                {
+                m_cRequested.addAndGet(-cEmitted);
+                }
+
+            cMissed = m_cWorkInProgress.addAndGet(-cMissed);
+            }
+        while (cMissed != 0);
+        }
+
+    /**
+     * Remove and return the pending batch.
+     * <p>
+     * This method must be called while holding the monitor.
+     *
+     * @return the pending batch
+     */
+    protected List<MapEvent<K, V>> takePending()
+        {
+        List<MapEvent<K, V>> listPending = m_listPending;
+
+        m_listPending = new ArrayList<>();
+        m_nBatch++;
+
+        return listPending;
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The subscriber to emit the batches to.
+     */
+    protected final Subscriber<? super List<MapEvent<K, V>>> m_subscriber;
+
+    /**
+     * The maximum number of events in a batch.
+     */
+    protected final int m_cMaxBatch;
+
+    /**
+     * The maximum number of milliseconds to wait for a batch to fill up.
+     */
+    protected final long m_cMaxDelayMillis;
+
+    /**
+     * The worker to complete the delayed batches and emit the batches on.
+     */
+    protected final Scheduler.Worker m_worker;
+
+    /**
+     * The events in the batch that is currently being filled up.
+     */
+    protected List<MapEvent<K, V>> m_listPending = new ArrayList<>();
+
+    /**
+     * The sequence number of the batch that is currently being filled up.
+     */
+    protected long m_nBatch;
+
+    /**
+     * The complete batches that have not been emitted yet.
+     */
+    protected final Queue<List<MapEvent<K, V>>> m_queueComplete = new ArrayDeque<>();
+
+    /**
+     * The number of batches requested by the subscriber.
+     */
+    protected final AtomicLong m_cRequested = new AtomicLong();
+
+    /**
+     * The number of times the batches were scheduled to be emitted while
+     * they were already being emitted.
+     */
+    protected final AtomicInteger m_cWorkInProgress = new AtomicInteger();
+
+    /**
+     * Flag specifying whether no more events will be received.
+     */
+    protected boolean m_fDone;
+
+    /**
+     * The error to terminate the subscriber with, if any.
+     */
+    protected Throwable m_error;
+    }
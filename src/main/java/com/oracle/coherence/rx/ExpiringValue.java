@@ -0,0 +1,221 @@
+/*
+ * File: ExpiringValue.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.io.ExternalizableLite;
+
+import com.tangosol.io.pof.PofReader;
+import com.tangosol.io.pof.PofWriter;
+import com.tangosol.io.pof.PortableObject;
+
+import com.tangosol.net.cache.CacheMap;
+
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.ExternalizableHelper;
+import com.tangosol.util.InvocableMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * The value of a cache entry, together with the number of milliseconds
+ * remaining before the entry expires.
+ * <p>
+ * This class and its {@link GetProcessor} support both Java and POF
+ * serialization; caches that use POF must include {@code
+ * coherence-rx-pof-config.xml} in their POF configuration.
+ *
+ * @param <V> the type of the value
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+public class ExpiringValue<V>
+        implements ExternalizableLite, PortableObject
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Deserialization constructor.
+     */
+    public ExpiringValue()
+        {
+        }
+
+    /**
+     * Construct ExpiringValue instance.
+     *
+     * @param value         the value
+     * @param cExpiryMillis the number of milliseconds remaining before the
+     *                      entry expires, {@link CacheMap#EXPIRY_DEFAULT} if
+     *                      the entry uses the cache's default expiry, or
+     *                      {@link CacheMap#EXPIRY_NEVER} if it never expires
+     */
+    public ExpiringValue(V value, long cExpiryMillis)
+        {
+        m_value         = value;
+        m_cExpiryMillis = cExpiryMillis;
+        }
+
+    // ---- ExpiringValue methods -------------------------------------------
+
+    /**
+     * Return the value.
+     *
+     * @return the value
+     */
+    public V getValue()
+        {
+        return m_value;
+        }
+
+    /**
+     * Return the number of milliseconds remaining before the entry expires.
+     *
+     * @return the number of milliseconds remaining before the entry expires,
+     *         {@link CacheMap#EXPIRY_DEFAULT} if the entry uses the cache's
+     *         default expiry, or {@link CacheMap#EXPIRY_NEVER} if it never
+     *         expires
+     */
+    public long getExpiryMillis()
+        {
+        return m_cExpiryMillis;
+        }
+
+    // ---- factory methods -------------------------------------------------
+
+    /**
+     * Return an EntryProcessor that returns the value of an entry together
+     * with its expiry.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     *
+     * @return an EntryProcessor that returns an ExpiringValue
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> InvocableMap.EntryProcessor<K, V, ExpiringValue<V>> processor()
+        {
+        return GetProcessor.INSTANCE;
+        }
+
+    // ---- ExternalizableLite interface ------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void readExternal(DataInput in) throws IOException
+        {
+        m_value         = (V) ExternalizableHelper.readObject(in);
+        m_cExpiryMillis = in.readLong();
+        }
+
+    @Override
+    public void writeExternal(DataOutput out) throws IOException
+        {
+        ExternalizableHelper.writeObject(out, m_value);
+        out.writeLong(m_cExpiryMillis);
+        }
+
+    // ---- PortableObject interface ----------------------------------------
+
+    @Override
+    public void readExternal(PofReader in) throws IOException
+        {
+        m_value         = in.readObject(0);
+        m_cExpiryMillis = in.readLong(1);
+        }
+
+    @Override
+    public void writeExternal(PofWriter out) throws IOException
+        {
+        out.writeObject(0, m_value);
+        out.writeLong(1, m_cExpiryMillis);
+        }
+
+    // ---- Object methods --------------------------------------------------
+
+    @Override
+    public String toString()
+        {
+        return m_value + " (expiry=" + m_cExpiryMillis + ")";
+        }
+
+    // ---- inner class: GetProcessor ---------------------------------------
+
+    /**
+     * An EntryProcessor that returns the value of an entry together with its
+     * expiry, or an ExpiringValue with a {@code null} value if the entry is
+     * not present.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     */
+    public static class GetProcessor<K, V>
+            implements InvocableMap.EntryProcessor<K, V, ExpiringValue<V>>, ExternalizableLite, PortableObject
+        {
+        @Override
+        public ExpiringValue<V> process(InvocableMap.Entry<K, V> entry)
+            {
+            long cExpiryMillis = entry instanceof BinaryEntry
+                                 ? ((BinaryEntry) entry).getExpiry()
+                                 : CacheMap.EXPIRY_DEFAULT;
+
+            return new ExpiringValue<>(entry.getValue(), cExpiryMillis);
+            }
+
+        @Override
+        public void readExternal(DataInput in) throws IOException
+            {
+            }
+
+        @Override
+        public void writeExternal(DataOutput out) throws IOException
+            {
+            }
+
+        @Override
+        public void readExternal(PofReader in) throws IOException
+            {
+            }
+
+        @Override
+        public void writeExternal(PofWriter out) throws IOException
+            {
+            }
+
+        /**
+         * The singleton GetProcessor instance.
+         */
+        public static final GetProcessor INSTANCE = new GetProcessor();
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The value.
+     */
+    private V m_value;
+
+    /**
+     * The number of milliseconds remaining before the entry expires.
+     */
+    private long m_cExpiryMillis;
+    }
@@ -0,0 +1,367 @@
+/*
+ * File: FrontCache.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.net.NamedCache;
+
+import com.tangosol.net.cache.CacheMap;
+import com.tangosol.net.cache.LocalCache;
+
+import com.tangosol.util.Base;
+
+import com.tangosol.util.filter.MapEventFilter;
+
+import rx.Observable;
+import rx.Subscription;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import java.util.function.Function;
+
+
+/**
+ * A size-limited, client-side cache of the values retrieved from a {@link
+ * NamedCache}, and of the keys known to be absent from it, which is kept
+ * coherent with the cluster by invalidating the cached information as the
+ * entries change.
+ * <p>
+ * The cached values and absent keys are evicted using the hybrid (LRU and
+ * LFU) eviction policy of a {@link LocalCache}, and invalidated using an
+ * {@link ObservableMapListener} that receives lite events for the entries in
+ * the cache (only the insert events, if values are not cached), and which
+ * remains registered with the cache until the front cache is {@link
+ * #release() released}. A value that
+ * is being loaded while its entry changes is discarded rather than cached, so
+ * the front cache never holds information that has been invalidated.
+ * <p>
+ * Each value also expires locally at the time the entry it was loaded from
+ * is due to expire in the cluster, so it is never served after its
+ * time-to-live has elapsed, even if the corresponding event has not been
+ * received yet. As the cluster only reports the time remaining when the entry
+ * was read, which could have been at any point while the load was in flight,
+ * that time is counted from the start of the load rather than from the
+ * arrival of the response.
+ * <p>
+ * Entries with {@code null} values are treated as absent.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+class FrontCache<K, V>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct FrontCache instance.
+     *
+     * @param cache      the cache to keep the front cache coherent with
+     * @param cMaxValues the maximum number of values to cache, or zero to
+     *                   not cache the values
+     * @param cMaxAbsent the maximum number of absent keys to cache, or zero
+     *                   to not cache the absent keys
+     */
+    FrontCache(NamedCache<K, V> cache, int cMaxValues, int cMaxAbsent)
+        {
+        m_mapFront  = cMaxValues > 0 ? new LocalCache(cMaxValues) : null;
+        m_mapAbsent = cMaxAbsent > 0 ? new LocalCache(cMaxAbsent) : null;
+
+        // absent keys can only become present by being inserted
+        int nMask = m_mapFront == null ? MapEventFilter.E_INSERTED : MapEventFilter.E_ALL;
+
+        m_listener     = ObservableMapListener.create(cache, nMask, null, true);
+        m_subscription = m_listener.subscribe(evt -> invalidate(evt.getKey()));
+        }
+
+    // ---- FrontCache methods ----------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will emit the cached value for the
+     * specified key, or load it together with its expiry using the specified
+     * function if it is not cached.
+     * <p>
+     * Cached values, as well as {@code null} for the keys known to be absent,
+     * are emitted synchronously upon subscription, without any interaction
+     * with the cluster.
+     *
+     * @param key    the key to return the value for
+     * @param loader the function to load the value with if it is not cached
+     *
+     * @return an {@link Observable} that will emit the value for the key
+     */
+    @SuppressWarnings("unchecked")
+    Observable<V> get(K key, Function<? super K, Observable<ExpiringValue<V>>> loader)
+        {
+        return Observable.defer(() ->
+                {
+                if (m_mapFront != null)
+                    {
+                    V value = (V) m_mapFront.get(key);
+                    if (value != null)
+                        {
+                        return Observable.just(value);
+                        }
+                    }
+
+                if (m_mapAbsent != null && m_mapAbsent.containsKey(key))
+                    {
+                    return Observable.just(null);
+                    }
+
+                Object oToken   = startLoad(key);
+                long   ldtStart = Base.getSafeTimeMillis();
+
+                return loader.apply(key)
+                        .map(expiring ->
+                            {
+                            V       value         = expiring == null ? null : expiring.getValue();
+                            long    cExpiryMillis = expiring == null
+                                                    ? CacheMap.EXPIRY_DEFAULT
+                                                    : expiring.getExpiryMillis();
+                            boolean fExpired      = false;
+
+                            if (cExpiryMillis > 0L)
+                                {
+                                cExpiryMillis -= Base.getSafeTimeMillis() - ldtStart;
+                                fExpired       = cExpiryMillis <= 0L;
+                                }
+
+                            // a value that may already have expired in the
+                            // cluster is emitted, but not cached
+                            onLoaded(key, value != null, fExpired ? null : value, cExpiryMillis, oToken);
+                            return value;
+                            })
+                        .doOnTerminate(() -> cancelLoad(key, oToken))
+                        .doOnUnsubscribe(() -> cancelLoad(key, oToken));
+                });
+        }
+
+    /**
+     * Return an {@link Observable} that will emit whether the specified key
+     * is present, using the cached information if available, or the specified
+     * function otherwise.
+     *
+     * @param key    the key to check
+     * @param loader the function to check the key with if the front cache
+     *               does not know whether it is present
+     *
+     * @return an {@link Observable} that will emit {@code true} if the key is
+     *         present
+     */
+    Observable<Boolean> containsKey(K key, Function<? super K, Observable<Boolean>> loader)
+        {
+        return Observable.defer(() ->
+                {
+                if (m_mapAbsent != null && m_mapAbsent.containsKey(key))
+                    {
+                    return Observable.just(false);
+                    }
+
+                if (m_mapFront != null && m_mapFront.containsKey(key))
+                    {
+                    return Observable.just(true);
+                    }
+
+                Object oToken = startLoad(key);
+
+                return loader.apply(key)
+                        .doOnNext(fPresent -> onLoaded(key, fPresent, null, CacheMap.EXPIRY_DEFAULT, oToken))
+                        .doOnTerminate(() -> cancelLoad(key, oToken))
+                        .doOnUnsubscribe(() -> cancelLoad(key, oToken));
+                });
+        }
+
+    /**
+     * Remove any cached information for the specified key, and discard any
+     * value for it that is currently being loaded.
+     *
+     * @param key the key to invalidate
+     */
+    synchronized void invalidate(Object key)
+        {
+        m_mapLoading.remove(key);
+
+        if (m_mapFront != null)
+            {
+            m_mapFront.remove(key);
+            }
+        if (m_mapAbsent != null)
+            {
+            m_mapAbsent.remove(key);
+            }
+        }
+
+    /**
+     * Invalidate the cached information for the specified keys.
+     *
+     * @param collKeys the keys to invalidate
+     */
+    synchronized void invalidateAll(Collection<?> collKeys)
+        {
+        collKeys.forEach(this::invalidate);
+        }
+
+    /**
+     * Remove all the cached information, and discard any values that are
+     * currently being loaded.
+     */
+    synchronized void clear()
+        {
+        m_mapLoading.clear();
+
+        if (m_mapFront != null)
+            {
+            m_mapFront.clear();
+            }
+        if (m_mapAbsent != null)
+            {
+            m_mapAbsent.clear();
+            }
+        }
+
+    /**
+     * Unregister the listener that keeps this front cache coherent, and
+     * discard all the cached information.
+     * <p>
+     * Once released, this front cache no longer caches anything, so all the
+     * lookups are delegated to the specified loaders.
+     */
+    synchronized void release()
+        {
+        m_fReleased = true;
+        m_subscription.unsubscribe();
+        m_mapLoading.clear();
+
+        if (m_mapFront != null)
+            {
+            m_mapFront.clear();
+            }
+        if (m_mapAbsent != null)
+            {
+            m_mapAbsent.clear();
+            }
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Register the start of a load for the specified key.
+     *
+     * @param key the key that is being loaded
+     *
+     * @return the token identifying the load
+     */
+    protected synchronized Object startLoad(K key)
+        {
+        Object oToken = new Object();
+        if (!m_fReleased)
+            {
+            m_mapLoading.put(key, oToken);
+            }
+
+        return oToken;
+        }
+
+    /**
+     * Discard the token identifying a load for the specified key once the load
+     * has completed, failed or been cancelled, unless the key has been loaded
+     * again since.
+     *
+     * @param key    the key the load was for
+     * @param oToken the token identifying the load
+     */
+    protected synchronized void cancelLoad(K key, Object oToken)
+        {
+        m_mapLoading.remove(key, oToken);
+        }
+
+    /**
+     * Cache the result of a load for the specified key, unless the key has
+     * been invalidated or loaded again since the load started.
+     *
+     * @param key           the key the load was for
+     * @param fPresent      flag specifying whether the key is present
+     * @param value         the loaded value, or {@code null} if only the
+     *                      presence of the key was checked
+     * @param cExpiryMillis the number of milliseconds remaining before the
+     *                      entry expires in the cluster, counted from now
+     * @param oToken        the token identifying the load
+     */
+    @SuppressWarnings("unchecked")
+    protected synchronized void onLoaded(K key, boolean fPresent, V value, long cExpiryMillis, Object oToken)
+        {
+        if (m_mapLoading.remove(key, oToken))
+            {
+            if (!fPresent)
+                {
+                if (m_mapAbsent != null)
+                    {
+                    m_mapAbsent.put(key, Boolean.TRUE);
+                    }
+                }
+            else if (value != null && m_mapFront != null)
+                {
+                // the cache default expiry is not known on the client, so the
+                // value is kept until the corresponding event invalidates it
+                m_mapFront.put(key, value, cExpiryMillis == CacheMap.EXPIRY_DEFAULT
+                                           ? CacheMap.EXPIRY_NEVER
+                                           : cExpiryMillis);
+                }
+            }
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The cached values, or {@code null} if the values are not cached.
+     */
+    protected final LocalCache m_mapFront;
+
+    /**
+     * The keys known to be absent, or {@code null} if the absent keys are not
+     * cached.
+     */
+    protected final LocalCache m_mapAbsent;
+
+    /**
+     * The listener that invalidates the cached information.
+     */
+    protected final ObservableMapListener<K, V> m_listener;
+
+    /**
+     * The subscription of the invalidating subscriber to the listener, which
+     * keeps the listener registered with the cache.
+     */
+    protected final Subscription m_subscription;
+
+    /**
+     * The tokens identifying the loads in progress, keyed by the key they
+     * load the value for.
+     */
+    protected final Map<K, Object> m_mapLoading = new HashMap<>();
+
+    /**
+     * Flag specifying whether this front cache has been released.
+     */
+    protected boolean m_fReleased;
+    }
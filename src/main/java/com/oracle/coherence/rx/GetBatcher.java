@@ -0,0 +1,266 @@
+/*
+ * File: GetBatcher.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import rx.Observable;
+import rx.Scheduler;
+
+import rx.subjects.AsyncSubject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Function;
+
+
+/**
+ * A loader that collects the keys of individual get requests issued within a
+ * short window, and retrieves them from the cache using a single bulk
+ * request, typically an {@link RxNamedCache#invokeAll(java.util.Collection,
+ * com.tangosol.util.InvocableMap.EntryProcessor) invokeAll}.
+ * <p>
+ * A batch is sent as soon as it contains the maximum number of keys, or when
+ * the maximum delay since its first key was requested has elapsed, whichever
+ * comes first. Each get receives the result of the processor for its own key,
+ * or {@code null} if the key is not in the cache, and concurrent gets for the
+ * same key within a batch share the same result.
+ *
+ * @param <K> the type of the entry keys
+ * @param <R> the type of the results
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+class GetBatcher<K, R>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct GetBatcher instance.
+     *
+     * @param loader          the function that retrieves the result for each
+     *                        key of a batch
+     * @param cMaxBatch       the maximum number of keys in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before sending it
+     * @param scheduler       the scheduler to use for the delayed batches
+     */
+    GetBatcher(Function<? super Set<K>, ? extends Observable<? extends Map.Entry<? extends K, ? extends R>>> loader,
+               int cMaxBatch, long cMaxDelayMillis, Scheduler scheduler)
+        {
+        m_loader          = loader;
+        m_cMaxBatch       = cMaxBatch;
+        m_cMaxDelayMillis = cMaxDelayMillis;
+        m_scheduler       = scheduler;
+        }
+
+    // ---- GetBatcher methods ----------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will emit the result for the
+     * specified key once the batch it is added to has been retrieved.
+     * <p>
+     * The key is added to the pending batch each time the returned Observable
+     * is subscribed to.
+     *
+     * @param key the key to retrieve the result for
+     *
+     * @return an {@link Observable} that will emit the result for the key
+     */
+    Observable<R> get(K key)
+        {
+        return Observable.defer(() ->
+                {
+                Map<K, AsyncSubject<R>> mapFlush = null;
+                AsyncSubject<R>         subject;
+
+                synchronized (this)
+                    {
+                    Map<K, AsyncSubject<R>> mapPending = m_mapPending;
+
+                    subject = mapPending.get(key);
+                    if (subject == null)
+                        {
+                        subject = AsyncSubject.create();
+                        mapPending.put(key, subject);
+
+                        if (mapPending.size() >= m_cMaxBatch)
+                            {
+                            mapFlush = takePending();
+                            }
+                        else if (mapPending.size() == 1)
+                            {
+                            schedule(m_nBatch);
+                            }
+                        }
+                    }
+
+                if (mapFlush != null)
+                    {
+                    load(mapFlush);
+                    }
+
+                return subject;
+                });
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Schedule the pending batch to be sent once the maximum delay elapses.
+     *
+     * @param nBatch the sequence number of the pending batch
+     */
+    protected void schedule(long nBatch)
+        {
+        Scheduler.Worker worker = m_scheduler.createWorker();
+
+        worker.schedule(() ->
+                {
+                try
+                    {
+                    Map<K, AsyncSubject<R>> mapFlush = null;
+
+                    synchronized (this)
+                        {
+                        if (nBatch == m_nBatch && !m_mapPending.isEmpty())
+                            {
+                            mapFlush = takePending();
+                            }
+                        }
+
+                    if (mapFlush != null)
+                        {
+                        load(mapFlush);
+                        }
+                    }
+                finally
+                    {
+                    worker.unsubscribe();
+                    }
+                }, m_cMaxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+    /**
+     * Remove and return the pending batch.
+     * <p>
+     * This method must be called while holding the monitor.
+     *
+     * @return the pending batch
+     */
+    protected Map<K, AsyncSubject<R>> takePending()
+        {
+        Map<K, AsyncSubject<R>> mapPending = m_mapPending;
+
+        m_mapPending = new HashMap<>();
+        m_nBatch++;
+
+        return mapPending;
+        }
+
+    /**
+     * Retrieve the results for the specified batch, and complete the subject
+     * for each key with its result.
+     * <p>
+     * A key that has no result is not in the cache, and its subject completes
+     * with {@code null}, unless the batch also returned results for keys that
+     * were not requested (for example, because they did not survive a
+     * serialization round trip unchanged). In that case the results cannot be
+     * matched reliably, and the subjects without a result fail instead.
+     *
+     * @param mapBatch the subjects to complete, keyed by the key they are
+     *                 waiting for
+     */
+    protected void load(Map<K, AsyncSubject<R>> mapBatch)
+        {
+        AtomicInteger cUnmatched = new AtomicInteger();
+
+        m_loader.apply(mapBatch.keySet())
+                .subscribe(entry ->
+                               {
+                               AsyncSubject<R> subject = mapBatch.get(entry.getKey());
+                               if (subject == null)
+                                   {
+                                   cUnmatched.incrementAndGet();
+                                   }
+                               else
+                                   {
+                                   subject.onNext(entry.getValue());
+                                   }
+                               },
+                           t -> mapBatch.values().forEach(subject -> subject.onError(t)),
+                           () -> mapBatch.forEach((key, subject) ->
+                                   {
+                                   if (subject.hasValue())
+                                       {
+                                       subject.onCompleted();
+                                       }
+                                   else if (cUnmatched.get() == 0)
+                                       {
+                                       subject.onNext(null);
+                                       subject.onCompleted();
+                                       }
+                                   else
+                                       {
+                                       subject.onError(new IllegalStateException("No result was returned for key "
+                                               + key + ", and " + cUnmatched.get()
+                                               + " results were returned for keys that were not requested"));
+                                       }
+                                   }));
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The function that retrieves the result for each key of a batch.
+     */
+    protected final Function<? super Set<K>, ? extends Observable<? extends Map.Entry<? extends K, ? extends R>>>
+            m_loader;
+
+    /**
+     * The maximum number of keys in a batch.
+     */
+    protected final int m_cMaxBatch;
+
+    /**
+     * The maximum number of milliseconds to wait for a batch to fill up.
+     */
+    protected final long m_cMaxDelayMillis;
+
+    /**
+     * The scheduler to use for the delayed batches.
+     */
+    protected final Scheduler m_scheduler;
+
+    /**
+     * The subjects waiting for the batch that is currently being filled up,
+     * keyed by the key they are waiting for.
+     */
+    protected Map<K, AsyncSubject<R>> m_mapPending = new HashMap<>();
+
+    /**
+     * The sequence number of the batch that is currently being filled up.
+     */
+    protected long m_nBatch;
+    }
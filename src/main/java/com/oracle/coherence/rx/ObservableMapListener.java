@@ -21,16 +21,36 @@ package com.oracle.coherence.rx;
 
 import com.tangosol.net.NamedCache;
 
+import com.tangosol.util.Base;
+import com.tangosol.util.Filter;
 import com.tangosol.util.MapEvent;
+import com.tangosol.util.MapEventTransformer;
 import com.tangosol.util.MapListener;
+import com.tangosol.util.ValueExtractor;
 
+import com.tangosol.util.filter.MapEventFilter;
+import com.tangosol.util.filter.MapEventTransformerFilter;
+
+import com.tangosol.util.transformer.ExtractorEventTransformer;
+
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import rx.Observable;
+import rx.Scheduler;
 import rx.Subscriber;
 
+import rx.exceptions.Exceptions;
+
+import rx.functions.Action0;
+
+import rx.schedulers.Schedulers;
+
 import rx.subscriptions.Subscriptions;
 
 
@@ -39,6 +59,11 @@ import rx.subscriptions.Subscriptions;
  * <p>
  * This is a 'hot' Observable which will start emitting events as soon as it's
  * registered with a cache via the {@link NamedCache#addMapListener} method.
+ * <p>
+ * The listeners created by the factory methods that accept a cache register
+ * themselves with it when they get their first subscriber, and unregister
+ * themselves when the last one unsubscribes, so no events are sent to the
+ * client while nobody is listening.
  *
  * See <a href="http://reactivex.io/documentation/observable.html">Observable
  * documentation</a> for the explanation of 'hot' vs 'cold' observables.
@@ -65,16 +90,176 @@ public class ObservableMapListener<K, V>
     public static <K, V> ObservableMapListener<K, V> create()
         {
         Set<Subscriber<? super MapEvent<K, V>>> subscribers = new CopyOnWriteArraySet<>();
+        TrackingSubscribe<K, V>                 onSubscribe = new TrackingSubscribe<>(subscribers);
 
-        return new ObservableMapListener<>(subscriber ->
-                       {
-                       subscriber.add(Subscriptions.create(() -> subscribers.remove(subscriber)));
+        ObservableMapListener<K, V> listener = new ObservableMapListener<>(onSubscribe, subscribers);
+        onSubscribe.m_listener = listener;
 
-                       if (!subscriber.isUnsubscribed())
-                           {
-                           subscribers.add(subscriber);
-                           }
-                       }, subscribers);
+        return listener;
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, and receives all the events for
+     * the entries in the cache.
+     *
+     * @param <K>   the type of the entry keys
+     * @param <V>   the type of the entry values
+     * @param cache the cache to register the listener with
+     *
+     * @return an ObservableMapListener for the cache
+     */
+    public static <K, V> ObservableMapListener<K, V> create(NamedCache<K, V> cache)
+        {
+        return create(cache, MapEventFilter.E_ALL, null);
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, so that it only receives the
+     * events for the entries that satisfy the specified filter.
+     * <p>
+     * The filter is evaluated by the storage members, so the events that do
+     * not satisfy it are never sent to the client.
+     *
+     * @param <K>    the type of the entry keys
+     * @param <V>    the type of the entry values
+     * @param cache  the cache to register the listener with
+     * @param filter the filter that the new or old value of an entry must
+     *               satisfy for its events to be received
+     *
+     * @return an ObservableMapListener for the cache
+     */
+    public static <K, V> ObservableMapListener<K, V> create(NamedCache<K, V> cache, Filter filter)
+        {
+        return create(cache, MapEventFilter.E_ALL, filter);
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, so that it only receives the
+     * events of the specified types for the entries that satisfy the specified
+     * filter.
+     * <p>
+     * Both the event mask and the filter are evaluated by the storage members,
+     * so the events that do not match them are never sent to the client.
+     *
+     * @param <K>    the type of the entry keys
+     * @param <V>    the type of the entry values
+     * @param cache  the cache to register the listener with
+     * @param nMask  the combination of the {@link MapEventFilter} {@code E_*}
+     *               constants that specifies the events to receive
+     * @param filter the filter that the new or old value of an entry must
+     *               satisfy for its events to be received, or {@code null}
+     *               to receive the events for all entries
+     *
+     * @return an ObservableMapListener for the cache
+     *
+     * @see #release()
+     */
+    public static <K, V> ObservableMapListener<K, V> create(NamedCache<K, V> cache, int nMask, Filter filter)
+        {
+        return create(cache, nMask, filter, false);
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, so that it only receives the
+     * events of the specified types for the entries that satisfy the specified
+     * filter, optionally without the old and new values.
+     * <p>
+     * Lite events only carry the event type and the key of the entry, which
+     * avoids serializing, sending and deserializing the values when the
+     * subscribers do not need them. Note that the cluster may still provide
+     * the values, so subscribers should not rely on them being absent.
+     *
+     * @param <K>    the type of the entry keys
+     * @param <V>    the type of the entry values
+     * @param cache  the cache to register the listener with
+     * @param nMask  the combination of the {@link MapEventFilter} {@code E_*}
+     *               constants that specifies the events to receive
+     * @param filter the filter that the new or old value of an entry must
+     *               satisfy for its events to be received, or {@code null}
+     *               to receive the events for all entries
+     * @param fLite  {@code true} to receive lite events, which may not carry
+     *               the old and new values
+     *
+     * @return an ObservableMapListener for the cache
+     *
+     * @see #release()
+     */
+    public static <K, V> ObservableMapListener<K, V> create(NamedCache<K, V> cache, int nMask, Filter filter,
+                                                            boolean fLite)
+        {
+        ObservableMapListener<K, V> listener = create();
+        listener.register(cache, new MapEventFilter(nMask, filter), fLite);
+
+        return listener;
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, so that it receives the events
+     * for the entries that satisfy the specified filter, as transformed by the
+     * specified transformer.
+     * <p>
+     * The transformer is executed by the storage members, so only the
+     * transformed events are sent to the client. Events for which the
+     * transformer returns {@code null} are not sent at all.
+     *
+     * @param <K>         the type of the entry keys
+     * @param <V>         the type of the values in the transformed events
+     * @param cache       the cache to register the listener with
+     * @param filter      the filter that the new or old value of an entry
+     *                    must satisfy for its events to be received, or
+     *                    {@code null} to receive the events for all entries
+     * @param transformer the transformer to apply to the events; must be
+     *                    serializable
+     *
+     * @return an ObservableMapListener for the cache
+     *
+     * @see #release()
+     */
+    public static <K, V> ObservableMapListener<K, V> create(NamedCache<K, ?> cache, Filter filter,
+                                                            MapEventTransformer<K, ?, V> transformer)
+        {
+        Filter filterEvent = filter == null ? null : new MapEventFilter(MapEventFilter.E_ALL, filter);
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Filter filterTransform = new MapEventTransformerFilter(filterEvent, transformer);
+
+        ObservableMapListener<K, V> listener = create();
+        listener.register(cache, filterTransform, false);
+
+        return listener;
+        }
+
+    /**
+     * Create ObservableMapListener instance that is registered with the
+     * specified cache while it has subscribers, so that it receives the events
+     * for the entries that satisfy the specified filter, with the old and new
+     * values replaced by the values extracted from them.
+     * <p>
+     * The values are extracted by the storage members, so only the extracted
+     * values are sent to the client.
+     *
+     * @param <K>       the type of the entry keys
+     * @param <V>       the type of the entry values
+     * @param <R>       the type of the extracted values
+     * @param cache     the cache to register the listener with
+     * @param filter    the filter that the new or old value of an entry must
+     *                  satisfy for its events to be received, or {@code null}
+     *                  to receive the events for all entries
+     * @param extractor the extractor to apply to the old and new values
+     *
+     * @return an ObservableMapListener for the cache
+     *
+     * @see #release()
+     */
+    public static <K, V, R> ObservableMapListener<K, R> createProjection(NamedCache<K, V> cache, Filter filter,
+                                                                         ValueExtractor<? super V, ? extends R> extractor)
+        {
+        return create(cache, filter, new ExtractorEventTransformer<K, V, R>(extractor));
         }
 
     /**
@@ -91,6 +276,401 @@ public class ObservableMapListener<K, V>
         m_subscribers = subscribers;
         }
 
+    // ---- ObservableMapListener methods ------------------------------------
+
+    /**
+     * Return an Observable that emits the events received by this listener for
+     * the specified key.
+     * <p>
+     * The subscribers to the returned Observable are kept in a hash index by
+     * key, so each event is only delivered to the subscribers for its key,
+     * regardless of how many subscribers there are for the other keys.
+     *
+     * @param key the key to emit the events for; must not be {@code null}
+     *
+     * @return an Observable that emits the events for the key
+     */
+    public Observable<MapEvent<K, V>> forKey(K key)
+        {
+        return Observable.create(subscriber -> addToIndex(m_mapKeyIndex, key, subscriber));
+        }
+
+    /**
+     * Return an Observable that emits the events received by this listener for
+     * the entries whose new or old value has the specified attribute value.
+     * <p>
+     * The subscribers to the returned Observable are kept in a hash index by
+     * attribute value, so each event is only delivered to the subscribers for
+     * the attribute values of its entry, and each attribute is extracted once
+     * per event regardless of how many subscribers there are. The index is
+     * kept per extractor instance, so the subscribers for the same attribute
+     * should use the same extractor instance, or an extractor that implements
+     * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     * <p>
+     * The attribute is extracted from the values carried by the events, so the
+     * returned Observable never emits anything if this listener receives lite
+     * events, which carry no values, and it is matched against the
+     * transformed values if this listener receives projected or transformed
+     * events. If the extractor fails for an event, that event is not
+     * delivered to any of the subscribers for the extractor, which remain
+     * subscribed and receive the subsequent events.
+     *
+     * @param <A>       the type of the attribute
+     * @param extractor the extractor for the attribute
+     * @param value     the attribute value to emit the events for; must not be
+     *                  {@code null}
+     *
+     * @return an Observable that emits the events for the attribute value
+     */
+    public <A> Observable<MapEvent<K, V>> forAttribute(ValueExtractor<? super V, ? extends A> extractor, A value)
+        {
+        if (value == null)
+            {
+            throw new NullPointerException("the indexed value must not be null");
+            }
+
+        // the index for the extractor is removed with its last subscriber
+        return Observable.create(subscriber ->
+                track(subscriber,
+                      () -> m_mapAttributeIndex.compute(extractor, (e, mapIndex) ->
+                              {
+                              if (mapIndex == null)
+                                  {
+                                  mapIndex = new ConcurrentHashMap<>();
+                                  }
+                              addSubscriber(mapIndex, value, subscriber);
+                              return mapIndex;
+                              }),
+                      () -> m_mapAttributeIndex.computeIfPresent(extractor, (e, mapIndex) ->
+                              {
+                              removeSubscriber(mapIndex, value, subscriber);
+                              return mapIndex.isEmpty() ? null : mapIndex;
+                              })));
+        }
+
+    /**
+     * Return an Observable that delivers the events received by this listener
+     * to each of its subscribers on a separate worker of the I/O scheduler,
+     * which runs each worker on a thread of its own, through a bounded queue
+     * per subscriber.
+     *
+     * @param cCapacity the capacity of the queue of each subscriber
+     * @param overflow  the policy to apply when the queue of a subscriber
+     *                  is full
+     *
+     * @return an AsyncDispatcher for the events received by this listener
+     */
+    public AsyncDispatcher<K, V> async(int cCapacity, AsyncDispatcher.Overflow overflow)
+        {
+        return async(cCapacity, overflow, Schedulers.io());
+        }
+
+    /**
+     * Return an Observable that delivers the events received by this listener
+     * to each of its subscribers on a separate worker of the specified
+     * scheduler, through a bounded queue per subscriber.
+     * <p>
+     * By default, the events are delivered synchronously on the Coherence
+     * event dispatch thread, so a single slow subscriber delays the events for
+     * all the other subscribers, and for all the other listeners registered
+     * with the same cache service. The returned Observable decouples each
+     * subscriber from the event dispatch thread, and from the other
+     * subscribers, at the cost of a bounded number of queued events. A
+     * subscriber is only isolated from the others if the scheduler runs its
+     * worker on a thread of its own; the workers of a scheduler with a fixed
+     * number of threads, such as the computation scheduler, share them.
+     * <p>
+     * The {@link AsyncDispatcher.Overflow#BLOCK BLOCK} policy blocks the
+     * event dispatch thread until the queue is drained, so it must not be
+     * combined with a scheduler that drains it on the calling thread, such
+     * as the immediate or trampoline scheduler.
+     *
+     * @param cCapacity the capacity of the queue of each subscriber
+     * @param overflow  the policy to apply when the queue of a subscriber
+     *                  is full
+     * @param scheduler the scheduler to drain the queues on; use {@link
+     *                  Schedulers#from} to drain them on an executor
+     *
+     * @return an AsyncDispatcher for the events received by this listener
+     */
+    public AsyncDispatcher<K, V> async(int cCapacity, AsyncDispatcher.Overflow overflow, Scheduler scheduler)
+        {
+        return AsyncDispatcher.create(this, cCapacity, overflow, scheduler);
+        }
+
+    /**
+     * Return an Observable that delivers the events received by this listener
+     * to each of its subscribers on a separate worker of the I/O scheduler,
+     * which runs each worker on a thread of its own, merging the pending
+     * events for the same key.
+     *
+     * @return an AsyncDispatcher for the events received by this listener
+     *
+     * @see #conflated(Scheduler)
+     */
+    public AsyncDispatcher<K, V> conflated()
+        {
+        return conflated(Schedulers.io());
+        }
+
+    /**
+     * Return an Observable that delivers the events received by this listener
+     * to each of its subscribers on a separate worker of the specified
+     * scheduler, merging the pending events for the same key.
+     * <p>
+     * This is intended for subscribers that only need the latest state of
+     * each entry: while a subscriber is busy, the events for each key are
+     * merged into a single event that carries the old value of the first one
+     * and the new value of the last one, and is delivered once the subscriber
+     * requests more events. The number of queued events is therefore bounded
+     * by the number of distinct keys, regardless of the event rate.
+     *
+     * @param scheduler the scheduler to drain the queues on
+     *
+     * @return an AsyncDispatcher for the events received by this listener
+     */
+    public AsyncDispatcher<K, V> conflated(Scheduler scheduler)
+        {
+        return AsyncDispatcher.createConflating(this, scheduler);
+        }
+
+    /**
+     * Return an Observable that emits the events received by this listener in
+     * batches of whatever events have arrived since the previous batch, up to
+     * the specified number of events.
+     * <p>
+     * Each batch is emitted on a worker of the computation scheduler as soon
+     * as it gets to it, so batching adds no latency, but the batches grow as
+     * the event rate exceeds the rate at which the subscriber processes them.
+     *
+     * @param cMaxBatch the maximum number of events in a batch
+     *
+     * @return an Observable that emits the batches of events
+     */
+    public Observable<List<MapEvent<K, V>>> batched(int cMaxBatch)
+        {
+        return batched(cMaxBatch, 0L);
+        }
+
+    /**
+     * Return an Observable that emits the events received by this listener in
+     * batches, each of which is emitted when it reaches the specified number
+     * of events, or when the specified delay since its first event has
+     * elapsed, whichever comes first.
+     *
+     * @param cMaxBatch       the maximum number of events in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before emitting it, or zero to
+     *                        emit the events that have arrived as soon as
+     *                        possible
+     *
+     * @return an Observable that emits the batches of events
+     */
+    public Observable<List<MapEvent<K, V>>> batched(int cMaxBatch, long cMaxDelayMillis)
+        {
+        return batched(cMaxBatch, cMaxDelayMillis, Schedulers.computation());
+        }
+
+    /**
+     * Return an Observable that emits the events received by this listener in
+     * batches, each of which is emitted when it reaches the specified number
+     * of events, or when the specified delay since its first event has
+     * elapsed, whichever comes first.
+     * <p>
+     * Emitting the events in batches amortizes the per-event overhead of the
+     * downstream operators, and lets subscribers that write the events to
+     * other systems write each batch at once. The batches are emitted on a
+     * worker of the specified scheduler, as the subscriber requests them, so
+     * a slow subscriber does not hold up the event dispatch thread.
+     *
+     * @param cMaxBatch       the maximum number of events in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before emitting it, or zero to
+     *                        emit the events that have arrived as soon as
+     *                        possible
+     * @param scheduler       the scheduler to emit the batches on
+     *
+     * @return an Observable that emits the batches of events
+     */
+    public Observable<List<MapEvent<K, V>>> batched(int cMaxBatch, long cMaxDelayMillis, Scheduler scheduler)
+        {
+        return EventBatcher.batch(this, cMaxBatch, cMaxDelayMillis, scheduler);
+        }
+
+    /**
+     * Return a dispatcher that spreads the events received by this listener
+     * over the specified number of lanes by the hash of their keys, and
+     * delivers them on the workers of the I/O scheduler, each of which runs
+     * on a thread of its own.
+     * <p>
+     * When the queue of a lane subscriber is full, the thread that emits the
+     * events is blocked until there is space in it.
+     *
+     * @param cLanes      the number of lanes
+     * @param cQueueDepth the capacity of the queue of each lane subscriber
+     *
+     * @return a PartitionedDispatcher for the events received by this listener
+     */
+    public PartitionedDispatcher<K, V> partitioned(int cLanes, int cQueueDepth)
+        {
+        return partitioned(cLanes, cQueueDepth, AsyncDispatcher.Overflow.BLOCK, Schedulers.io());
+        }
+
+    /**
+     * Return a dispatcher that spreads the events received by this listener
+     * over the specified number of lanes by the hash of their keys.
+     * <p>
+     * Unlike {@link #observeOn(Scheduler)}, which processes all the events on
+     * a single thread, or {@link #async}, which gives each subscriber its own
+     * thread, the lanes process the events on as many threads as there are
+     * lanes, while still delivering the events for the same key in order.
+     *
+     * @param cLanes      the number of lanes
+     * @param cQueueDepth the capacity of the queue of each lane subscriber
+     * @param overflow    the policy to apply when the queue of a lane
+     *                    subscriber is full; {@link
+     *                    AsyncDispatcher.Overflow#BLOCK BLOCK} must not be
+     *                    combined with the immediate or trampoline scheduler
+     * @param scheduler   the scheduler to drain the queues on
+     *
+     * @return a PartitionedDispatcher for the events received by this listener
+     */
+    public PartitionedDispatcher<K, V> partitioned(int cLanes, int cQueueDepth, AsyncDispatcher.Overflow overflow,
+                                                   Scheduler scheduler)
+        {
+        return new PartitionedDispatcher<>(this, cLanes, cQueueDepth, overflow, scheduler);
+        }
+
+    /**
+     * Unregister this listener from the cache it was associated with by one
+     * of the {@code create} factory methods that accept a cache, and stop
+     * registering it when it gets new subscribers.
+     * <p>
+     * This is not necessary once all the subscribers have unsubscribed, and
+     * has no effect if this listener was not created by such a factory
+     * method, or has already been released.
+     */
+    public void release()
+        {
+        synchronized (this)
+            {
+            m_cache = null;
+            }
+
+        updateRegistration();
+        }
+
+    /**
+     * Associate this listener with the specified cache, so that it is
+     * registered with it using the specified filter while it has subscribers.
+     *
+     * @param cache  the cache to register this listener with
+     * @param filter the filter to register this listener with
+     * @param fLite  {@code true} to register for lite events
+     */
+    protected void register(NamedCache<K, ?> cache, Filter filter, boolean fLite)
+        {
+        synchronized (this)
+            {
+            m_cache  = cache;
+            m_filter = filter;
+            m_fLite  = fLite;
+            }
+
+        updateRegistration();
+        }
+
+    /**
+     * Record a new subscriber, and register this listener with the cache it
+     * is associated with if it is the first one.
+     */
+    protected void onSubscribed()
+        {
+        synchronized (this)
+            {
+            m_cSubscribers++;
+            }
+
+        updateRegistration();
+        }
+
+    /**
+     * Record the departure of a subscriber, and unregister this listener from
+     * the cache it is associated with if it was the last one.
+     */
+    protected void onUnsubscribed()
+        {
+        synchronized (this)
+            {
+            m_cSubscribers--;
+            }
+
+        updateRegistration();
+        }
+
+    /**
+     * Register this listener with the cache it is associated with if it has
+     * subscribers, and unregister it otherwise.
+     * <p>
+     * The registration is decided while holding the monitor, but is changed
+     * outside of it, as adding and removing a listener are remote calls. Only
+     * one thread changes the registration at a time; a thread that finds the
+     * registration being changed leaves it to that thread, which checks
+     * again once it is done. A subscriber that arrives while the
+     * registration is being removed may therefore miss the events sent
+     * before it is added again.
+     */
+    @SuppressWarnings("unchecked")
+    protected void updateRegistration()
+        {
+        while (true)
+            {
+            NamedCache cacheRemove;
+            NamedCache cacheAdd;
+            Filter     filter;
+            boolean    fLite;
+
+            synchronized (this)
+                {
+                NamedCache cacheTarget = m_cSubscribers > 0 ? m_cache : null;
+                if (m_fUpdating || cacheTarget == m_cacheRegistered)
+                    {
+                    return;
+                    }
+
+                m_fUpdating = true;
+                cacheRemove = m_cacheRegistered;
+                cacheAdd    = cacheTarget;
+                filter      = m_filter;
+                fLite       = m_fLite;
+                }
+
+            NamedCache cacheRegistered = cacheRemove;
+            try
+                {
+                if (cacheRemove != null)
+                    {
+                    cacheRemove.removeMapListener(this, filter);
+                    cacheRegistered = null;
+                    }
+
+                if (cacheAdd != null)
+                    {
+                    cacheAdd.addMapListener(this, filter, fLite);
+                    cacheRegistered = cacheAdd;
+                    }
+                }
+            finally
+                {
+                synchronized (this)
+                    {
+                    m_cacheRegistered = cacheRegistered;
+                    m_fUpdating       = false;
+                    }
+                }
+            }
+        }
+
     // ---- MapListener methods ---------------------------------------------
 
     /**
@@ -135,6 +715,191 @@ public class ObservableMapListener<K, V>
     protected void onMapEvent(MapEvent<K, V> evt)
         {
         m_subscribers.forEach(s -> s.onNext(evt));
+
+        if (!m_mapKeyIndex.isEmpty())
+            {
+            dispatch(m_mapKeyIndex, evt.getKey(), evt);
+            }
+
+        if (!m_mapAttributeIndex.isEmpty())
+            {
+            V valueNew = evt.getNewValue();
+            V valueOld = evt.getOldValue();
+
+            m_mapAttributeIndex.forEach((extractor, mapIndex) ->
+                    {
+                    Object oNew;
+                    Object oOld;
+                    try
+                        {
+                        oNew = valueNew == null ? null : extractor.extract(valueNew);
+                        oOld = valueOld == null ? null : extractor.extract(valueOld);
+                        }
+                    catch (Throwable t)
+                        {
+                        // the event cannot be matched against the attribute
+                        // values, so it is skipped for this extractor only
+                        Exceptions.throwIfFatal(t);
+                        return;
+                        }
+
+                    dispatch(mapIndex, oNew, evt);
+                    if (!Base.equals(oOld, oNew))
+                        {
+                        dispatch(mapIndex, oOld, evt);
+                        }
+                    });
+            }
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Add the specified subscriber using the specified action, and remove it
+     * using the other specified action when it unsubscribes, keeping track of
+     * the number of subscribers.
+     *
+     * @param subscriber   the subscriber to add
+     * @param actionAdd    the action that adds the subscriber
+     * @param actionRemove the action that removes the subscriber
+     */
+    protected void track(Subscriber<?> subscriber, Action0 actionAdd, Action0 actionRemove)
+        {
+        actionAdd.call();
+        onSubscribed();
+
+        // executed immediately if the subscriber has already unsubscribed
+        subscriber.add(Subscriptions.create(() ->
+                {
+                actionRemove.call();
+                onUnsubscribed();
+                }));
+        }
+
+    /**
+     * Add the specified subscriber to the specified index under the specified
+     * value, and remove it when it unsubscribes.
+     *
+     * @param mapIndex   the index to add the subscriber to
+     * @param oValue     the value to add the subscriber under
+     * @param subscriber the subscriber to add
+     */
+    protected void addToIndex(ConcurrentMap<Object, Set<Subscriber<? super MapEvent<K, V>>>> mapIndex,
+                              Object oValue, Subscriber<? super MapEvent<K, V>> subscriber)
+        {
+        if (oValue == null)
+            {
+            throw new NullPointerException("the indexed value must not be null");
+            }
+
+        track(subscriber,
+              () -> addSubscriber(mapIndex, oValue, subscriber),
+              () -> removeSubscriber(mapIndex, oValue, subscriber));
+        }
+
+    /**
+     * Add the specified subscriber to the specified index under the specified
+     * value.
+     *
+     * @param mapIndex   the index to add the subscriber to
+     * @param oValue     the value to add the subscriber under
+     * @param subscriber the subscriber to add
+     */
+    protected void addSubscriber(ConcurrentMap<Object, Set<Subscriber<? super MapEvent<K, V>>>> mapIndex,
+                                 Object oValue, Subscriber<? super MapEvent<K, V>> subscriber)
+        {
+        mapIndex.compute(oValue, (o, setSubscribers) ->
+                {
+                if (setSubscribers == null)
+                    {
+                    setSubscribers = new CopyOnWriteArraySet<>();
+                    }
+                setSubscribers.add(subscriber);
+                return setSubscribers;
+                });
+        }
+
+    /**
+     * Remove the specified subscriber from the specified index, removing the
+     * specified value from the index if it was its last subscriber.
+     *
+     * @param mapIndex   the index to remove the subscriber from
+     * @param oValue     the value the subscriber was added under
+     * @param subscriber the subscriber to remove
+     */
+    protected void removeSubscriber(ConcurrentMap<Object, Set<Subscriber<? super MapEvent<K, V>>>> mapIndex,
+                                    Object oValue, Subscriber<? super MapEvent<K, V>> subscriber)
+        {
+        mapIndex.computeIfPresent(oValue, (o, setSubscribers) ->
+                {
+                setSubscribers.remove(subscriber);
+                return setSubscribers.isEmpty() ? null : setSubscribers;
+                });
+        }
+
+    /**
+     * Deliver the specified event to the subscribers in the specified index
+     * under the specified value.
+     *
+     * @param mapIndex the index to look the subscribers up in
+     * @param oValue   the value to look the subscribers up by
+     * @param evt      the event to deliver
+     */
+    protected void dispatch(Map<Object, Set<Subscriber<? super MapEvent<K, V>>>> mapIndex,
+                            Object oValue, MapEvent<K, V> evt)
+        {
+        if (oValue != null)
+            {
+            Set<Subscriber<? super MapEvent<K, V>>> setSubscribers = mapIndex.get(oValue);
+            if (setSubscribers != null)
+                {
+                setSubscribers.forEach(s -> s.onNext(evt));
+                }
+            }
+        }
+
+    // ---- inner class: TrackingSubscribe ----------------------------------
+
+    /**
+     * The function executed when an ObservableMapListener created by {@link
+     * #create()} is subscribed to, which adds the subscriber to the set of
+     * active subscribers for as long as it is subscribed.
+     *
+     * @param <K> the type of the entry keys
+     * @param <V> the type of the entry values
+     */
+    protected static class TrackingSubscribe<K, V>
+            implements Observable.OnSubscribe<MapEvent<K, V>>
+        {
+        /**
+         * Construct TrackingSubscribe instance.
+         *
+         * @param subscribers the set of active subscribers
+         */
+        protected TrackingSubscribe(Set<Subscriber<? super MapEvent<K, V>>> subscribers)
+            {
+            m_subscribers = subscribers;
+            }
+
+        @Override
+        public void call(Subscriber<? super MapEvent<K, V>> subscriber)
+            {
+            m_listener.track(subscriber,
+                             () -> m_subscribers.add(subscriber),
+                             () -> m_subscribers.remove(subscriber));
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The set of active subscribers.
+         */
+        protected final Set<Subscriber<? super MapEvent<K, V>>> m_subscribers;
+
+        /**
+         * The listener that tracks the subscribers, set once it is created.
+         */
+        protected volatile ObservableMapListener<K, V> m_listener;
         }
 
     // ---- data members ----------------------------------------------------
@@ -143,4 +908,51 @@ public class ObservableMapListener<K, V>
      * A set of active subscribers.
      */
     protected Set<Subscriber<? super MapEvent<K, V>>> m_subscribers;
+
+    /**
+     * The subscribers for individual keys, keyed by the key.
+     */
+    protected final ConcurrentMap<Object, Set<Subscriber<? super MapEvent<K, V>>>> m_mapKeyIndex =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The subscribers for individual attribute values, keyed by the extractor
+     * for the attribute and then by the attribute value. The index for an
+     * extractor only exists while it has subscribers.
+     */
+    protected final ConcurrentMap<ValueExtractor<? super V, ?>,
+            ConcurrentMap<Object, Set<Subscriber<? super MapEvent<K, V>>>>> m_mapAttributeIndex =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The cache this listener was associated with by a factory method, if
+     * any.
+     */
+    protected NamedCache<K, ?> m_cache;
+
+    /**
+     * The filter this listener was registered with.
+     */
+    protected Filter m_filter;
+
+    /**
+     * Flag specifying whether this listener is registered for lite events.
+     */
+    protected boolean m_fLite;
+
+    /**
+     * The number of active subscribers, including the indexed ones.
+     */
+    protected int m_cSubscribers;
+
+    /**
+     * The cache this listener is currently registered with, if any.
+     */
+    protected NamedCache<K, ?> m_cacheRegistered;
+
+    /**
+     * Flag specifying whether a thread is currently changing the
+     * registration of this listener.
+     */
+    protected boolean m_fUpdating;
     }
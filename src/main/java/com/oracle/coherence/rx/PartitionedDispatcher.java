@@ -0,0 +1,331 @@
+/*
+ * File: PartitionedDispatcher.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.util.MapEvent;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+import rx.subscriptions.CompositeSubscription;
+
+import java.util.Objects;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A dispatcher that spreads the events emitted by a source Observable,
+ * typically an {@link ObservableMapListener}, over a fixed number of lanes
+ * by the hash of their keys.
+ * <p>
+ * Each lane is an {@link AsyncDispatcher} that delivers its events to each of
+ * its subscribers on a worker of its own, so with a scheduler that runs each
+ * worker on a thread of its own, such as the I/O scheduler, the events are
+ * processed by as many threads as there are lanes, while all the events for
+ * the same key go through the same lane, and are therefore delivered in order.
+ * <p>
+ * The dispatcher subscribes to the source Observable when one of its lanes
+ * is first subscribed to, and unsubscribes from it when it is {@link
+ * #unsubscribe() unsubscribed}, even if the lanes have no subscribers left.
+ * The lanes are hot, so the events dispatched to a lane before it is
+ * subscribed to are lost; use {@link #subscribe(Action1)} to subscribe to
+ * all the lanes before the dispatcher subscribes to the source. The
+ * completion or failure of the source Observable is propagated to all the
+ * lanes.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+public class PartitionedDispatcher<K, V>
+        implements Subscription
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct PartitionedDispatcher instance.
+     *
+     * @param source      the Observable that emits the events to dispatch
+     * @param cLanes      the number of lanes
+     * @param cQueueDepth the capacity of the queue of each lane subscriber
+     * @param overflow    the policy to apply when the queue of a lane
+     *                    subscriber is full
+     * @param scheduler   the scheduler to drain the queues on
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedDispatcher(Observable<MapEvent<K, V>> source, int cLanes, int cQueueDepth,
+                                 AsyncDispatcher.Overflow overflow, Scheduler scheduler)
+        {
+        if (cLanes <= 0)
+            {
+            throw new IllegalArgumentException("the number of lanes must be positive");
+            }
+
+        Subject<MapEvent<K, V>, MapEvent<K, V>>[] aSources = new Subject[cLanes];
+        AsyncDispatcher<K, V>[]                   aLanes   = new AsyncDispatcher[cLanes];
+        for (int i = 0; i < cLanes; i++)
+            {
+            Subject<MapEvent<K, V>, MapEvent<K, V>> subject = PublishSubject.create();
+
+            aSources[i] = subject;
+            aLanes[i]   = AsyncDispatcher.create(Observable.<MapEvent<K, V>>create(s ->
+                    {
+                    subject.unsafeSubscribe(s);
+                    connect();
+                    }), cQueueDepth, overflow, scheduler);
+            }
+
+        m_source   = source;
+        m_aSources = aSources;
+        m_aLanes   = aLanes;
+        }
+
+    // ---- PartitionedDispatcher methods -----------------------------------
+
+    /**
+     * Return the number of lanes.
+     *
+     * @return the number of lanes
+     */
+    public int getLaneCount()
+        {
+        return m_aLanes.length;
+        }
+
+    /**
+     * Return the lane that the events for the specified key are dispatched to.
+     *
+     * @param key the key to return the lane for
+     *
+     * @return the index of the lane for the key
+     */
+    public int getLane(Object key)
+        {
+        int nHash = Objects.hashCode(key);
+
+        // spread the high bits, as consecutive hashes are common for keys
+        return Math.floorMod(nHash ^ (nHash >>> 16), m_aLanes.length);
+        }
+
+    /**
+     * Return the Observable for the specified lane.
+     *
+     * @param nLane the index of the lane
+     *
+     * @return the Observable that emits the events for the lane
+     */
+    public AsyncDispatcher<K, V> lane(int nLane)
+        {
+        return m_aLanes[nLane];
+        }
+
+    /**
+     * Subscribe the specified action to all the lanes.
+     * <p>
+     * The action is called concurrently for the events in different lanes,
+     * and sequentially, in order, for the events for the same key.
+     *
+     * @param onNext the action to call for each event
+     *
+     * @return the subscription to all the lanes
+     */
+    public Subscription subscribe(Action1<? super MapEvent<K, V>> onNext)
+        {
+        return subscribeAll(lane -> lane.subscribe(onNext));
+        }
+
+    /**
+     * Subscribe the specified actions to all the lanes.
+     * <p>
+     * The action is called concurrently for the events in different lanes,
+     * and sequentially, in order, for the events for the same key. If the
+     * source Observable fails, the error action is called once per lane.
+     *
+     * @param onNext  the action to call for each event
+     * @param onError the action to call if the source Observable fails
+     *
+     * @return the subscription to all the lanes
+     */
+    public Subscription subscribe(Action1<? super MapEvent<K, V>> onNext, Action1<Throwable> onError)
+        {
+        return subscribeAll(lane -> lane.subscribe(onNext, onError));
+        }
+
+    /**
+     * Return the number of events queued for the slowest subscriber of the
+     * specified lane.
+     *
+     * @param nLane the index of the lane
+     *
+     * @return the lag of the lane
+     */
+    public int getLag(int nLane)
+        {
+        return m_aLanes[nLane].getLag();
+        }
+
+    /**
+     * Return the total number of events dropped across all the lanes.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount()
+        {
+        long cDropped = 0L;
+        for (AsyncDispatcher<K, V> lane : m_aLanes)
+            {
+            cDropped += lane.getDroppedCount();
+            }
+
+        return cDropped;
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Subscribe to each lane using the specified function, and only then
+     * subscribe to the source Observable, so that no lane misses any events.
+     *
+     * @param function the function that subscribes to a lane
+     *
+     * @return the subscription to all the lanes
+     */
+    protected Subscription subscribeAll(Func1<AsyncDispatcher<K, V>, Subscription> function)
+        {
+        CompositeSubscription subscriptions = new CompositeSubscription();
+
+        m_cHolds.incrementAndGet();
+        try
+            {
+            for (AsyncDispatcher<K, V> lane : m_aLanes)
+                {
+                subscriptions.add(function.call(lane));
+                }
+            }
+        finally
+            {
+            m_cHolds.decrementAndGet();
+            }
+
+        connect();
+        return subscriptions;
+        }
+
+    /**
+     * Subscribe to the source Observable, unless this dispatcher has already
+     * done so, has been unsubscribed, or is being subscribed to all the lanes.
+     */
+    protected void connect()
+        {
+        if (m_cHolds.get() > 0 || m_subscription.isUnsubscribed() || !m_fConnected.compareAndSet(false, true))
+            {
+            return;
+            }
+
+        Subject<MapEvent<K, V>, MapEvent<K, V>>[] aSources = m_aSources;
+
+        // unsubscribed immediately if this dispatcher has been unsubscribed
+        m_subscription.add(m_source.subscribe(new Subscriber<MapEvent<K, V>>()
+            {
+            @Override
+            public void onNext(MapEvent<K, V> evt)
+                {
+                aSources[getLane(evt.getKey())].onNext(evt);
+                }
+
+            @Override
+            public void onCompleted()
+                {
+                for (Subject<MapEvent<K, V>, MapEvent<K, V>> subject : aSources)
+                    {
+                    subject.onCompleted();
+                    }
+                }
+
+            @Override
+            public void onError(Throwable t)
+                {
+                for (Subject<MapEvent<K, V>, MapEvent<K, V>> subject : aSources)
+                    {
+                    subject.onError(t);
+                    }
+                }
+            }));
+        }
+
+    // ---- Subscription interface ------------------------------------------
+
+    @Override
+    public void unsubscribe()
+        {
+        m_subscription.unsubscribe();
+        }
+
+    @Override
+    public boolean isUnsubscribed()
+        {
+        return m_subscription.isUnsubscribed();
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The Observable that emits the events to dispatch.
+     */
+    protected final Observable<MapEvent<K, V>> m_source;
+
+    /**
+     * The subjects that emit the events of each lane.
+     */
+    protected final Subject<MapEvent<K, V>, MapEvent<K, V>>[] m_aSources;
+
+    /**
+     * The lanes.
+     */
+    protected final AsyncDispatcher<K, V>[] m_aLanes;
+
+    /**
+     * The subscription to the source Observable, once subscribed to.
+     */
+    protected final CompositeSubscription m_subscription = new CompositeSubscription();
+
+    /**
+     * Flag specifying whether this dispatcher has subscribed to the source
+     * Observable.
+     */
+    protected final AtomicBoolean m_fConnected = new AtomicBoolean();
+
+    /**
+     * The number of calls that are subscribing to all the lanes, during
+     * which this dispatcher does not subscribe to the source Observable.
+     */
+    protected final AtomicInteger m_cHolds = new AtomicInteger();
+    }
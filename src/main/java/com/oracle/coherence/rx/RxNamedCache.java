@@ -25,9 +25,13 @@ import com.tangosol.net.AsyncNamedCache;
 import com.tangosol.net.NamedCache;
 
 import com.tangosol.net.cache.CacheMap;
+import com.tangosol.net.cache.ContinuousQueryCache;
 
 import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.MapEvent;
+import com.tangosol.util.Processors;
+import com.tangosol.util.ValueExtractor;
 
 import com.tangosol.util.aggregator.Count;
 
@@ -37,7 +41,12 @@ import com.tangosol.util.function.Remote;
 
 import rx.Observable;
 
+import rx.schedulers.Schedulers;
+
+import rx.subscriptions.Subscriptions;
+
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 
 
@@ -82,6 +91,38 @@ public interface RxNamedCache<K, V>
         return new RxNamedCacheImpl<>(cache);
         }
 
+    /**
+     * Factory method for RxNamedCache instance.
+     *
+     * @param <K>     the type of the entry keys
+     * @param <V>     the type of the entry values
+     * @param cache   the NamedCache to create the wrapper for
+     * @param options the options that should be used to configure the
+     *                returned RxNamedCache
+     *
+     * @return  the RxNamedCache instance for the given NamedCache
+     */
+    static <K, V> RxNamedCache<K, V> rx(NamedCache<K, V> cache, Option... options)
+        {
+        return new RxNamedCacheImpl<>(cache.async(), options);
+        }
+
+    /**
+     * Factory method for RxNamedCache instance.
+     *
+     * @param <K>     the type of the entry keys
+     * @param <V>     the type of the entry values
+     * @param cache   the AsyncNamedCache to create the wrapper for
+     * @param options the options that should be used to configure the
+     *                returned RxNamedCache
+     *
+     * @return  the RxNamedCache instance for the given NamedCache
+     */
+    static <K, V> RxNamedCache<K, V> rx(AsyncNamedCache<K, V> cache, Option... options)
+        {
+        return new RxNamedCacheImpl<>(cache, options);
+        }
+
     // ---- CacheMap methods ------------------------------------------------
 
     /**
@@ -178,6 +219,63 @@ public interface RxNamedCache<K, V>
         return (Observable) invokeAll(map.keySet(), CacheProcessors.putAll(map)).filter(entry -> false);
         }
 
+    /**
+     * Copies all of the entries emitted by the specified {@link Observable}
+     * into this map, using batches of {@link #putAll(Map)} operations.
+     * <p>
+     * A batch is written once it contains {@code cMaxBatch} entries, or once
+     * {@code cMaxDelayMillis} milliseconds have elapsed since its first entry
+     * was received, whichever comes first. At most {@code cMaxInFlight}
+     * batches are written concurrently, and the entries are requested from
+     * the specified Observable only as fast as they can be written.
+     *
+     * @param entries         the Observable that emits the entries to add
+     * @param cMaxBatch       the maximum number of entries in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before writing it
+     * @param cMaxInFlight    the maximum number of batches to write
+     *                        concurrently
+     *
+     * @return an {@link Observable} that will be completed when all the
+     *         entries have been written, but will not emit any values
+     */
+    default Observable<Void> putAll(Observable<? extends Map.Entry<? extends K, ? extends V>> entries,
+                                    int cMaxBatch, long cMaxDelayMillis, int cMaxInFlight)
+        {
+        return putAll(entries, cMaxBatch, cMaxDelayMillis, cMaxInFlight, false);
+        }
+
+    /**
+     * Copies all of the entries emitted by the specified {@link Observable}
+     * into this map, using batches of {@link #putAll(Map)} operations, and
+     * optionally coalescing the updates to the same key.
+     * <p>
+     * If {@code fCoalesce} is {@code true}, an entry whose key is already
+     * waiting to be written, either in the batch that is being filled up or
+     * in one that is queued, simply replaces the previous value, so only the
+     * latest value for each key is written. Otherwise, the batch is closed, so that every update is
+     * applied. Either way, a batch is never written concurrently with an
+     * earlier batch that contains any of the same keys, so the updates to
+     * each key are applied in order.
+     *
+     * @param entries         the Observable that emits the entries to add
+     * @param cMaxBatch       the maximum number of entries in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before writing it
+     * @param cMaxInFlight    the maximum number of batches to write
+     *                        concurrently
+     * @param fCoalesce       flag specifying whether to coalesce the updates
+     *                        to the same key that are waiting to be written
+     *
+     * @return an {@link Observable} that will be completed when all the
+     *         entries have been written, but will not emit any values
+     */
+    default Observable<Void> putAll(Observable<? extends Map.Entry<? extends K, ? extends V>> entries,
+                                    int cMaxBatch, long cMaxDelayMillis, int cMaxInFlight, boolean fCoalesce)
+        {
+        return WriteBatcher.putAll(this, entries, cMaxBatch, cMaxDelayMillis, cMaxInFlight, fCoalesce);
+        }
+
     /**
      * Removes the mapping for a key from this map if it is present.
      *
@@ -275,6 +373,80 @@ public interface RxNamedCache<K, V>
         return invokeAll(filter, CacheProcessors.get());
         }
 
+    /**
+     * Return an {@link Observable} which will emit the entries contained in
+     * this map that satisfy the criteria expressed by the filter, with the
+     * values projected using the specified extractor.
+     * <p>
+     * The extractor is executed on the storage members, so only the extracted
+     * values are sent over the network and deserialized on the client. If
+     * more than one attribute is needed, a {@link
+     * com.tangosol.util.extractor.MultiExtractor} can be used to extract them
+     * all at once.
+     *
+     * @param <R>       the type of the extracted values
+     * @param filter    the Filter object representing the criteria that the
+     *                  entries of this map should satisfy
+     * @param extractor the ValueExtractor to apply to the value of each
+     *                  selected entry
+     *
+     * @return an {@link Observable} which will emit the projected entries that
+     *         satisfy the specified criteria
+     */
+    default <R> Observable<? extends Map.Entry<? extends K, ? extends R>>
+    entrySet(Filter filter, ValueExtractor<? super V, ? extends R> extractor)
+        {
+        return invokeAll(filter, Processors.extract(extractor));
+        }
+
+    /**
+     * Return an {@link Observable} which will emit the entries contained in
+     * this map that satisfy the criteria expressed by the filter, in the order
+     * defined by the comparator.
+     *
+     * @param filter     the Filter object representing the criteria that the
+     *                   entries of this map should satisfy
+     * @param comparator the Comparator to sort the entry values with, or
+     *                   {@code null} to sort them in their natural order;
+     *                   must be serializable
+     *
+     * @return an {@link Observable} which will emit the entries that satisfy
+     *         the specified criteria, in order
+     */
+    default Observable<? extends Map.Entry<? extends K, ? extends V>>
+    entrySet(Filter filter, Comparator<? super V> comparator)
+        {
+        return entrySet(filter, comparator, Integer.MAX_VALUE);
+        }
+
+    /**
+     * Return an {@link Observable} which will emit the first {@code cLimit}
+     * entries contained in this map that satisfy the criteria expressed by
+     * the filter, in the order defined by the comparator.
+     * <p>
+     * The entries are sorted on the storage members, each of which only
+     * returns its own first {@code cLimit} entries, and the partial results
+     * are then merged on the client. This makes the cost of the query
+     * proportional to the limit, rather than to the number of entries that
+     * satisfy the filter.
+     *
+     * @param filter     the Filter object representing the criteria that the
+     *                   entries of this map should satisfy
+     * @param comparator the Comparator to sort the entry values with, or
+     *                   {@code null} to sort them in their natural order;
+     *                   must be serializable
+     * @param cLimit     the maximum number of entries to emit
+     *
+     * @return an {@link Observable} which will emit the first {@code cLimit}
+     *         entries that satisfy the specified criteria, in order
+     */
+    default Observable<? extends Map.Entry<? extends K, ? extends V>>
+    entrySet(Filter filter, Comparator<? super V> comparator, int cLimit)
+        {
+        return aggregate(filter, new SortedEntriesAggregator<K, V>(comparator, cLimit))
+                .flatMapIterable(listEntries -> listEntries);
+        }
+
     /**
      * Return an {@link Observable} which will emit all the values contained
      * in this map.
@@ -301,6 +473,28 @@ public interface RxNamedCache<K, V>
         return invokeAll(filter, CacheProcessors.get()).map(Map.Entry::getValue);
         }
 
+    /**
+     * Return an {@link Observable} which will emit the values extracted from
+     * all the entries contained in this map that satisfy the criteria
+     * expressed by the filter.
+     * <p>
+     * The extractor is executed on the storage members, so only the extracted
+     * values are sent over the network and deserialized on the client.
+     *
+     * @param <R>       the type of the extracted values
+     * @param filter    the Filter object representing the criteria that the
+     *                  entries of this map should satisfy
+     * @param extractor the ValueExtractor to apply to the value of each
+     *                  selected entry
+     *
+     * @return an {@link Observable} which will emit the extracted values for
+     *         entries that satisfy the specified criteria
+     */
+    default <R> Observable<R> values(Filter filter, ValueExtractor<? super V, ? extends R> extractor)
+        {
+        return entrySet(filter, extractor).map(Map.Entry::getValue);
+        }
+
     // ---- InvocableMap methods --------------------------------------------
 
     /**
@@ -686,4 +880,714 @@ public interface RxNamedCache<K, V>
         {
         return (Observable) invokeAll(filter, CacheProcessors.replace(function)).filter(e -> false);
         }
+
+    // ---- ObservableMap methods -------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will emit an {@link
+     * MapEvent#ENTRY_INSERTED insert} event for each entry that satisfies the
+     * specified filter at the time of subscription, followed by an event for
+     * each subsequent change to the set of entries that satisfy it.
+     * <p>
+     * The events are provided by a continuous query, which registers for the
+     * changes before it retrieves the initial entries, so no change is missed
+     * or emitted twice between the initial entries and the subsequent
+     * changes. An entry that stops satisfying the filter is emitted as a
+     * {@link MapEvent#ENTRY_DELETED delete} event.
+     * <p>
+     * The returned Observable is cold, as each subscription creates its own
+     * continuous query, which is released when the subscriber unsubscribes.
+     * The events are emitted as they occur, so subscribers that cannot keep
+     * up should apply one of the {@code onBackpressure} operators.
+     * <p>
+     * Note that as the events must carry the entry values, each continuous
+     * query keeps its own copy of all the entries that satisfy the filter on
+     * the client, for as long as it is subscribed to. Use a selective filter,
+     * or share a single subscription via {@link Observable#share()}, when
+     * many subscribers observe the same entries.
+     * <p>
+     * The continuous query is created on the I/O scheduler, as retrieving the
+     * initial entries is a blocking operation.
+     *
+     * @param filter the filter that determines the entries to observe
+     *
+     * @return an {@link Observable} that will emit the initial entries and
+     *         the subsequent changes as map events
+     */
+    default Observable<MapEvent<K, V>> observe(Filter filter)
+        {
+        return Observable.<MapEvent<K, V>>create(s ->
+                {
+                ObservableMapListener<K, V> listener = ObservableMapListener.create();
+                listener.unsafeSubscribe(s);
+
+                @SuppressWarnings({"rawtypes", "unchecked"})
+                ContinuousQueryCache cqc = new ContinuousQueryCache(getNamedCache(), filter, listener);
+                s.add(Subscriptions.create(cqc::release));
+                }).subscribeOn(Schedulers.io());
+        }
+
+    /**
+     * Return an {@link Observable} that will emit an event for each change to
+     * the entry with the specified key.
+     * <p>
+     * Unlike {@link #observe(Filter)}, the returned Observable is hot, and only
+     * emits the changes that occur while it is subscribed to.
+     * <p>
+     * The default implementation registers a key listener with the cluster
+     * for each subscription, which is removed when the subscriber
+     * unsubscribes.
+     *
+     * @param key the key of the entry to observe
+     *
+     * @return an {@link Observable} that will emit the changes to the entry as
+     *         map events
+     */
+    default Observable<MapEvent<K, V>> observeKey(K key)
+        {
+        return Observable.<MapEvent<K, V>>create(s ->
+                {
+                NamedCache<K, V>            cache    = getNamedCache();
+                ObservableMapListener<K, V> listener = ObservableMapListener.create();
+                listener.unsafeSubscribe(s);
+
+                cache.addMapListener(listener, key, false);
+                s.add(Subscriptions.create(() -> cache.removeMapListener(listener, key)));
+                });
+        }
+
+    // ---- accessors -------------------------------------------------------
+
+    /**
+     * Return the NamedCache this RxNamedCache is a wrapper for.
+     *
+     * @return the underlying NamedCache
+     */
+    NamedCache<K, V> getNamedCache();
+
+    // ---- lifecycle methods -----------------------------------------------
+
+    /**
+     * Release the client-side resources held by this RxNamedCache, such as
+     * the front cache used by the {@link NearCaching} and {@link
+     * NegativeCaching} options and the listener that keeps it coherent.
+     * <p>
+     * The underlying cache is not released, and this RxNamedCache remains
+     * usable after this method is called, but it no longer caches anything
+     * on the client.
+     */
+    default void release()
+        {
+        }
+
+    // ---- inner interface: Option -----------------------------------------
+
+    /**
+     * An immutable option that can be used to configure an RxNamedCache
+     * instance created via one of the {@code rx} factory methods.
+     */
+    interface Option
+        {
+        }
+
+    // ---- inner class: PartitionPaging ------------------------------------
+
+    /**
+     * An {@link Option} that determines whether filter-based queries, such as
+     * {@link #entrySet(Filter)}, {@link #keySet(Filter)} and {@link
+     * #values(Filter)}, should be executed one set of partitions at a time.
+     * <p>
+     * When paging is enabled, the next set of partitions is only queried once
+     * the subscriber has requested and consumed all the results from the
+     * previous one, which keeps client memory bounded regardless of the size
+     * of the result set. Paging only applies to partitioned caches, and is
+     * ignored for any other cache type.
+     */
+    final class PartitionPaging
+            implements Option
+        {
+        /**
+         * Construct PartitionPaging instance.
+         *
+         * @param cPartitions the number of partitions to query at a time,
+         *                    or zero to disable paging
+         */
+        private PartitionPaging(int cPartitions)
+            {
+            m_cPartitions = cPartitions;
+            }
+
+        /**
+         * Return the number of partitions to query at a time.
+         *
+         * @return the number of partitions to query at a time, or zero if
+         *         paging is disabled
+         */
+        public int getPartitions()
+            {
+            return m_cPartitions;
+            }
+
+        /**
+         * Return a PartitionPaging option that will query the specified
+         * number of partitions at a time.
+         *
+         * @param cPartitions the number of partitions to query at a time
+         *
+         * @return a PartitionPaging option
+         */
+        public static PartitionPaging of(int cPartitions)
+            {
+            if (cPartitions <= 0)
+                {
+                throw new IllegalArgumentException("the number of partitions must be positive");
+                }
+            return new PartitionPaging(cPartitions);
+            }
+
+        /**
+         * Return a PartitionPaging option that will query a single partition
+         * at a time.
+         *
+         * @return a PartitionPaging option
+         */
+        public static PartitionPaging single()
+            {
+            return of(1);
+            }
+
+        /**
+         * Return a PartitionPaging option that disables paging, which is the
+         * default.
+         *
+         * @return a PartitionPaging option
+         */
+        public static PartitionPaging none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The PartitionPaging option that disables paging.
+         */
+        private static final PartitionPaging NONE = new PartitionPaging(0);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The number of partitions to query at a time.
+         */
+        private final int m_cPartitions;
+        }
+
+    // ---- inner class: KeyBatching ----------------------------------------
+
+    /**
+     * An {@link Option} that determines whether key-based bulk operations,
+     * such as {@link #invokeAll(Collection, InvocableMap.EntryProcessor)},
+     * {@link #getAll(Collection)} and {@link #removeAll(Collection)}, should
+     * split the specified keys into several smaller requests.
+     * <p>
+     * When batching is enabled, the keys are grouped by partition and split
+     * into batches of the specified size, which are then sent to the cluster
+     * with at most the specified number of requests in flight at any given
+     * time. The results are emitted as each batch completes.
+     * <p>
+     * Alternatively, the keys can be grouped by the storage member that owns
+     * them, in which case a single request is sent to each owner in parallel,
+     * so the latency of the operation is bound by the slowest member. The
+     * ownership is determined each time the returned Observable is
+     * subscribed to, and any keys that move to a different member while the
+     * request is in flight are transparently re-routed by the cluster.
+     */
+    final class KeyBatching
+            implements Option
+        {
+        /**
+         * Construct KeyBatching instance.
+         *
+         * @param cBatchSize   the maximum number of keys to send in a single
+         *                     request, or zero to disable batching
+         * @param cMaxInFlight the maximum number of concurrent requests
+         * @param fByOwner     flag specifying whether the keys should be
+         *                     grouped by owner
+         */
+        private KeyBatching(int cBatchSize, int cMaxInFlight, boolean fByOwner)
+            {
+            m_cBatchSize   = cBatchSize;
+            m_cMaxInFlight = cMaxInFlight;
+            m_fByOwner     = fByOwner;
+            }
+
+        /**
+         * Return the maximum number of keys to send in a single request.
+         *
+         * @return the maximum number of keys to send in a single request, or
+         *         zero if batching is disabled
+         */
+        public int getBatchSize()
+            {
+            return m_cBatchSize;
+            }
+
+        /**
+         * Return the maximum number of concurrent requests.
+         *
+         * @return the maximum number of concurrent requests
+         */
+        public int getMaxInFlight()
+            {
+            return m_cMaxInFlight;
+            }
+
+        /**
+         * Return {@code true} if the keys should be grouped by the storage
+         * member that owns them.
+         *
+         * @return {@code true} if the keys should be grouped by owner
+         */
+        public boolean isByOwner()
+            {
+            return m_fByOwner;
+            }
+
+        /**
+         * Return a KeyBatching option that will send at most the specified
+         * number of keys in a single request, with at most the specified
+         * number of requests in flight.
+         *
+         * @param cBatchSize   the maximum number of keys to send in a single
+         *                     request
+         * @param cMaxInFlight the maximum number of concurrent requests
+         *
+         * @return a KeyBatching option
+         */
+        public static KeyBatching of(int cBatchSize, int cMaxInFlight)
+            {
+            if (cBatchSize <= 0 || cMaxInFlight <= 0)
+                {
+                throw new IllegalArgumentException("the batch size and the number of requests must be positive");
+                }
+            return new KeyBatching(cBatchSize, cMaxInFlight, false);
+            }
+
+        /**
+         * Return a KeyBatching option that will send a single request to each
+         * storage member that owns some of the keys, all in parallel.
+         *
+         * @return a KeyBatching option
+         */
+        public static KeyBatching byOwner()
+            {
+            return BY_OWNER;
+            }
+
+        /**
+         * Return a KeyBatching option that disables batching, which is the
+         * default.
+         *
+         * @return a KeyBatching option
+         */
+        public static KeyBatching none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The KeyBatching option that disables batching.
+         */
+        private static final KeyBatching NONE = new KeyBatching(0, Integer.MAX_VALUE, false);
+
+        /**
+         * The KeyBatching option that groups the keys by owner.
+         */
+        private static final KeyBatching BY_OWNER = new KeyBatching(0, Integer.MAX_VALUE, true);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The maximum number of keys to send in a single request.
+         */
+        private final int m_cBatchSize;
+
+        /**
+         * The maximum number of concurrent requests.
+         */
+        private final int m_cMaxInFlight;
+
+        /**
+         * Flag specifying whether the keys should be grouped by owner.
+         */
+        private final boolean m_fByOwner;
+        }
+
+    // ---- inner class: SingleFlight ---------------------------------------
+
+    /**
+     * An {@link Option} that determines whether concurrent {@link #get(Object)}
+     * calls for the same key should share a single request.
+     * <p>
+     * When enabled, a get for a key that already has a request in flight
+     * does not send another request to the cluster, but receives the result
+     * of the pending one instead. Once that request completes, the next get
+     * for the same key sends a new request, so the results are never older
+     * than the time of the call.
+     */
+    final class SingleFlight
+            implements Option
+        {
+        /**
+         * Construct SingleFlight instance.
+         *
+         * @param fEnabled flag specifying whether the requests should be
+         *                 shared
+         */
+        private SingleFlight(boolean fEnabled)
+            {
+            m_fEnabled = fEnabled;
+            }
+
+        /**
+         * Return {@code true} if concurrent requests for the same key should
+         * be shared.
+         *
+         * @return {@code true} if concurrent requests should be shared
+         */
+        public boolean isEnabled()
+            {
+            return m_fEnabled;
+            }
+
+        /**
+         * Return a SingleFlight option that will share concurrent requests
+         * for the same key.
+         *
+         * @return a SingleFlight option
+         */
+        public static SingleFlight enabled()
+            {
+            return ENABLED;
+            }
+
+        /**
+         * Return a SingleFlight option that will send a separate request for
+         * each call, which is the default.
+         *
+         * @return a SingleFlight option
+         */
+        public static SingleFlight none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The SingleFlight option that shares concurrent requests.
+         */
+        private static final SingleFlight ENABLED = new SingleFlight(true);
+
+        /**
+         * The SingleFlight option that sends a separate request for each call.
+         */
+        private static final SingleFlight NONE = new SingleFlight(false);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * Flag specifying whether the requests should be shared.
+         */
+        private final boolean m_fEnabled;
+        }
+
+    // ---- inner class: GetBatching ----------------------------------------
+
+    /**
+     * An {@link Option} that determines whether individual {@link
+     * #get(Object)} calls should be merged into batched requests.
+     * <p>
+     * When batching is enabled, the keys requested within a short window are
+     * collected and retrieved using a single {@link #invokeAll(Collection,
+     * InvocableMap.EntryProcessor) invokeAll} request, which is sent as soon
+     * as the batch reaches the specified size, or once the specified delay
+     * has elapsed since the first key was added to it. Each get then receives
+     * the value for its own key, which trades a small, bounded delay for far
+     * fewer network requests.
+     */
+    final class GetBatching
+            implements Option
+        {
+        /**
+         * Construct GetBatching instance.
+         *
+         * @param cMaxBatch       the maximum number of keys in a batch, or
+         *                        zero to disable batching
+         * @param cMaxDelayMillis the maximum number of milliseconds to wait
+         *                        for a batch to fill up
+         */
+        private GetBatching(int cMaxBatch, long cMaxDelayMillis)
+            {
+            m_cMaxBatch       = cMaxBatch;
+            m_cMaxDelayMillis = cMaxDelayMillis;
+            }
+
+        /**
+         * Return the maximum number of keys in a batch.
+         *
+         * @return the maximum number of keys in a batch, or zero if batching
+         *         is disabled
+         */
+        public int getMaxBatch()
+            {
+            return m_cMaxBatch;
+            }
+
+        /**
+         * Return the maximum number of milliseconds to wait for a batch to
+         * fill up before sending it.
+         *
+         * @return the maximum number of milliseconds to wait
+         */
+        public long getMaxDelayMillis()
+            {
+            return m_cMaxDelayMillis;
+            }
+
+        /**
+         * Return a GetBatching option that will send a batch once it contains
+         * the specified number of keys, or once the specified delay has
+         * elapsed since its first key was requested.
+         *
+         * @param cMaxBatch       the maximum number of keys in a batch
+         * @param cMaxDelayMillis the maximum number of milliseconds to wait
+         *                        for a batch to fill up
+         *
+         * @return a GetBatching option
+         */
+        public static GetBatching of(int cMaxBatch, long cMaxDelayMillis)
+            {
+            if (cMaxBatch <= 0 || cMaxDelayMillis < 0)
+                {
+                throw new IllegalArgumentException("the batch size must be positive and the delay must not be negative");
+                }
+            return new GetBatching(cMaxBatch, cMaxDelayMillis);
+            }
+
+        /**
+         * Return a GetBatching option that disables batching, which is the
+         * default.
+         *
+         * @return a GetBatching option
+         */
+        public static GetBatching none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The GetBatching option that disables batching.
+         */
+        private static final GetBatching NONE = new GetBatching(0, 0L);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The maximum number of keys in a batch.
+         */
+        private final int m_cMaxBatch;
+
+        /**
+         * The maximum number of milliseconds to wait for a batch to fill up.
+         */
+        private final long m_cMaxDelayMillis;
+        }
+
+    // ---- inner class: NearCaching ----------------------------------------
+
+    /**
+     * An {@link Option} that determines whether the values returned by
+     * {@link #get(Object)} should be cached on the client.
+     * <p>
+     * When near caching is enabled, the retrieved values are kept in a
+     * size-limited front cache, and subsequent gets for the same keys emit the
+     * cached values synchronously, without interacting with the cluster. The
+     * front cache is kept coherent by invalidating the cached values whenever
+     * the corresponding entries change, either through this RxNamedCache or
+     * through any other client.
+     * <p>
+     * Writes issued through this RxNamedCache, including key-based entry
+     * processor invocations, also invalidate the affected keys as soon as
+     * they complete, and the filter-based {@code removeAll}, {@code
+     * replaceAll} and {@code clear} operations discard the whole front cache,
+     * so a get that follows a completed write always observes it. Changes
+     * made by a processor passed to the filter-based {@code invokeAll} are
+     * only observed once the corresponding events are received.
+     * <p>
+     * The listener that invalidates the cached values remains registered with
+     * the cache until {@link #release()} is called.
+     */
+    final class NearCaching
+            implements Option
+        {
+        /**
+         * Construct NearCaching instance.
+         *
+         * @param cMaxUnits the maximum number of values to cache, or zero to
+         *                  disable near caching
+         */
+        private NearCaching(int cMaxUnits)
+            {
+            m_cMaxUnits = cMaxUnits;
+            }
+
+        /**
+         * Return the maximum number of values to cache.
+         *
+         * @return the maximum number of values to cache, or zero if near
+         *         caching is disabled
+         */
+        public int getMaxUnits()
+            {
+            return m_cMaxUnits;
+            }
+
+        /**
+         * Return a NearCaching option that will cache at most the specified
+         * number of values, evicting the least valuable ones when the limit
+         * is reached.
+         *
+         * @param cMaxUnits the maximum number of values to cache
+         *
+         * @return a NearCaching option
+         */
+        public static NearCaching of(int cMaxUnits)
+            {
+            if (cMaxUnits <= 0)
+                {
+                throw new IllegalArgumentException("the number of cached values must be positive");
+                }
+            return new NearCaching(cMaxUnits);
+            }
+
+        /**
+         * Return a NearCaching option that disables near caching, which is
+         * the default.
+         *
+         * @return a NearCaching option
+         */
+        public static NearCaching none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The NearCaching option that disables near caching.
+         */
+        private static final NearCaching NONE = new NearCaching(0);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The maximum number of values to cache.
+         */
+        private final int m_cMaxUnits;
+        }
+
+    // ---- inner class: NegativeCaching ------------------------------------
+
+    /**
+     * An {@link Option} that determines whether the keys found to be absent
+     * by {@link #get(Object)} and {@link #containsKey(Object)} should be
+     * remembered on the client.
+     * <p>
+     * When negative caching is enabled, subsequent lookups for a key known to
+     * be absent return immediately, without interacting with the cluster. The
+     * remembered keys are forgotten as soon as the corresponding entries are
+     * inserted, either through this RxNamedCache or through any other client,
+     * and the least valuable ones are evicted when the limit is reached.
+     * Entries with {@code null} values are treated as absent.
+     * <p>
+     * Like the values cached by {@link NearCaching}, the remembered keys are
+     * also forgotten as soon as a write issued through this RxNamedCache
+     * completes, so a lookup that follows a completed {@code putIfAbsent},
+     * {@code compute} or any other write always observes it.
+     * <p>
+     * The listener that forgets the inserted keys remains registered with the
+     * cache until {@link #release()} is called.
+     */
+    final class NegativeCaching
+            implements Option
+        {
+        /**
+         * Construct NegativeCaching instance.
+         *
+         * @param cMaxKeys the maximum number of absent keys to remember, or
+         *                 zero to disable negative caching
+         */
+        private NegativeCaching(int cMaxKeys)
+            {
+            m_cMaxKeys = cMaxKeys;
+            }
+
+        /**
+         * Return the maximum number of absent keys to remember.
+         *
+         * @return the maximum number of absent keys to remember, or zero if
+         *         negative caching is disabled
+         */
+        public int getMaxKeys()
+            {
+            return m_cMaxKeys;
+            }
+
+        /**
+         * Return a NegativeCaching option that will remember at most the
+         * specified number of absent keys.
+         *
+         * @param cMaxKeys the maximum number of absent keys to remember
+         *
+         * @return a NegativeCaching option
+         */
+        public static NegativeCaching of(int cMaxKeys)
+            {
+            if (cMaxKeys <= 0)
+                {
+                throw new IllegalArgumentException("the number of absent keys must be positive");
+                }
+            return new NegativeCaching(cMaxKeys);
+            }
+
+        /**
+         * Return a NegativeCaching option that disables negative caching,
+         * which is the default.
+         *
+         * @return a NegativeCaching option
+         */
+        public static NegativeCaching none()
+            {
+            return NONE;
+            }
+
+        // ---- constants ---------------------------------------------------
+
+        /**
+         * The NegativeCaching option that disables negative caching.
+         */
+        private static final NegativeCaching NONE = new NegativeCaching(0);
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The maximum number of absent keys to remember.
+         */
+        private final int m_cMaxKeys;
+        }
     }
@@ -19,16 +19,53 @@
 package com.oracle.coherence.rx;
 
 
+import com.tangosol.internal.util.processor.CacheProcessors;
+
 import com.tangosol.net.AsyncNamedCache;
+import com.tangosol.net.CacheService;
+import com.tangosol.net.Member;
 import com.tangosol.net.NamedCache;
+import com.tangosol.net.PartitionedService;
+
+import com.tangosol.net.partition.KeyPartitioningStrategy;
+import com.tangosol.net.partition.PartitionSet;
 
 import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.MapEvent;
+
+import com.tangosol.util.aggregator.DistinctValues;
+
+import com.tangosol.util.extractor.IdentityExtractor;
+import com.tangosol.util.extractor.KeyExtractor;
+
+import com.tangosol.util.filter.PartitionedFilter;
+
+import com.tangosol.util.function.Remote;
 
 import rx.Observable;
 
+import rx.schedulers.Schedulers;
+
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -49,160 +86,880 @@ public class RxNamedCacheImpl<K, V>
      */
     protected RxNamedCacheImpl(AsyncNamedCache<K, V> cache)
         {
-        m_cache = cache;
+        this(cache, new Option[0]);
+        }
+
+    /**
+     * Construct RxNamedCacheImpl instance.
+     *
+     * @param cache   the wrapped AsyncNamedCache to delegate invocations to
+     * @param options the options to configure this RxNamedCacheImpl with
+     */
+    protected RxNamedCacheImpl(AsyncNamedCache<K, V> cache, Option... options)
+        {
+        m_cache    = cache;
+        m_paging   = getOption(options, PartitionPaging.class, PartitionPaging.none());
+        m_batching = getOption(options, KeyBatching.class, KeyBatching.none());
+
+        boolean     fSingleFlight = getOption(options, SingleFlight.class, SingleFlight.none()).isEnabled();
+        GetBatching getBatching   = getOption(options, GetBatching.class, GetBatching.none());
+
+        int cMaxValues = getOption(options, NearCaching.class, NearCaching.none()).getMaxUnits();
+        int cMaxAbsent = getOption(options, NegativeCaching.class, NegativeCaching.none()).getMaxKeys();
+
+        if (cMaxValues > 0 || cMaxAbsent > 0)
+            {
+            m_front          = new FrontCache<>(cache.getNamedCache(), cMaxValues, cMaxAbsent);
+            m_loader         = null;
+            m_loaderExpiring = new Loader<>(ExpiringValue.<K, V>processor(), getBatching, fSingleFlight);
+            }
+        else
+            {
+            m_front          = null;
+            m_loader         = new Loader<>(CacheProcessors.<K, V>get(), getBatching, fSingleFlight);
+            m_loaderExpiring = null;
+            }
+
+        m_listenerKeys = ObservableMapListener.create(cache.getNamedCache());
         }
 
     // ---- RxNamedCache interface ------------------------------------------
 
     @Override
-    public <R> Observable<R> invoke(K key, InvocableMap.EntryProcessor<K, V, R> processor)
+    public void release()
         {
-        return Observable
-                .create(s -> m_cache.invoke(key, processor)
-                        .handle((r, t) ->
-                                {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onNext(r);
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
+        FrontCache<K, V> front = m_front;
+        if (front != null)
+            {
+            front.release();
+            }
+        }
+
+    @Override
+    public Observable<V> get(K key)
+        {
+        FrontCache<K, V> front = m_front;
 
-                                return null;
-                                }));
+        return front == null ? m_loader.get(key) : front.get(key, m_loaderExpiring::get);
         }
 
     @Override
+    public Observable<Boolean> containsKey(K key)
+        {
+        FrontCache<K, V> front = m_front;
+
+        return front == null
+               ? read(key, InvocableMap.Entry::isPresent)
+               : front.containsKey(key, k -> read(k, InvocableMap.Entry::isPresent));
+        }
+
+    @Override
+    public Observable<? extends Map.Entry<? extends K, ? extends V>> getAll(Collection<? extends K> collKeys)
+        {
+        return readAll(collKeys, CacheProcessors.<K, V>get()).filter(e -> e.getValue() != null);
+        }
+
+    @Override
+    public Observable<V> getOrDefault(K key, V valueDefault)
+        {
+        return read(key, CacheProcessors.getOrDefault()).map(opt -> opt.orElse(valueDefault));
+        }
+
+    @Override
+    public Observable<Void> removeAll(Filter filter)
+        {
+        return clearOnTerminate(RxNamedCache.super.removeAll(filter));
+        }
+
+    @Override
+    public Observable<Void> replaceAll(Filter filter, Remote.BiFunction<? super K, ? super V, ? extends V> function)
+        {
+        return clearOnTerminate(RxNamedCache.super.replaceAll(filter, function));
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the processor may modify the entry, the front cache entry for the
+     * key is invalidated once the invocation terminates, if near or negative
+     * caching is enabled.
+     */
+    @Override
+    public <R> Observable<R> invoke(K key, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return invalidateOnTerminate(read(key, processor), Collections.singleton(key));
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the processor may modify the entries, the front cache entries for
+     * the keys are invalidated once the invocation terminates, if near or
+     * negative caching is enabled.
+     */
+    @Override
     public <R> Observable<? extends Map.Entry<? extends K, ? extends R>>
     invokeAll(Collection<? extends K> collKeys, InvocableMap.EntryProcessor<K, V, R> processor)
         {
-        return Observable
-                .create(s -> m_cache.invokeAll(collKeys, processor, entry -> s.onNext(entry))
-                        .handle((r, t) ->
-                                {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
-
-                                return null;
-                                }));
+        return invalidateOnTerminate(readAll(collKeys, processor), collKeys);
         }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unlike the key-based invocations, this method does not invalidate the
+     * front cache once the invocation terminates, as it is also used by the
+     * filter-based queries. The front cache observes the changes made by a
+     * processor passed to this method through the cache events; use {@link
+     * #removeAll(Filter)} or {@link #replaceAll(Filter, Remote.BiFunction)} for
+     * filter-based updates that must be visible to the subsequent gets as
+     * soon as they complete.
+     */
     @Override
     public <R> Observable<? extends Map.Entry<? extends K, ? extends R>>
     invokeAll(Filter filter, InvocableMap.EntryProcessor<K, V, R> processor)
         {
-        return Observable
-                .create(s -> m_cache.invokeAll(filter, processor, entry -> s.onNext(entry))
-                        .handle((r, t) ->
-                                {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
+        return Observable.defer(() ->
+                {
+                List<PartitionSet> listPages = getPartitionPages();
 
-                                return null;
-                                }));
+                return listPages == null
+                       ? invokeAllStreaming(filter, processor)
+                       : Observable.from(listPages)
+                               .<Map.Entry<? extends K, ? extends R>>concatMap(parts ->
+                                       invokeAllPage(new PartitionedFilter(filter, parts), processor));
+                });
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are queried one set of partitions at a time, using the sets
+     * defined by the {@link PartitionPaging} option, or sets of {@value
+     * #KEY_SET_PAGE_PARTITIONS} partitions if paging is disabled, so that each
+     * response only contains the keys of a single set, and the keys of the
+     * next set are not queried until the subscriber requests them.
+     */
+    @Override
+    public Observable<K> keySet(Filter filter)
+        {
+        return Observable.defer(() ->
+                {
+                int                cPagePartitions = m_paging.getPartitions();
+                List<PartitionSet> listPages       = getPartitionPages(cPagePartitions > 0
+                                                                       ? cPagePartitions
+                                                                       : KEY_SET_PAGE_PARTITIONS);
+
+                return listPages == null
+                       ? keySetPage(filter)
+                       : Observable.from(listPages)
+                               .concatMap(parts -> keySetPage(new PartitionedFilter(filter, parts)));
+                });
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entries are emitted as the subscriber requests them, using a k-way
+     * merge of sorted runs, one for each set of partitions defined by the
+     * {@link PartitionPaging} option, or one for each partition if paging is
+     * disabled. Each run is sorted on the storage members and retrieved in
+     * chunks, so the client only ever holds one chunk of entries per run.
+     * <p>
+     * As each chunk is retrieved by aggregating the entries of its run again,
+     * the runs are kept small, and the chunks retrieved from a run grow with
+     * each retrieval, so that each run is only scanned a few times. Only a
+     * bounded number of chunks are retrieved concurrently.
+     * <p>
+     * The entries are retrieved from the live cache, so concurrent updates
+     * made while the result is being emitted may or may not be reflected in
+     * it. In particular, an entry whose value is updated after it has been
+     * emitted may be emitted again if its new value sorts after the last
+     * entry retrieved from its run, and an entry may be skipped if its value
+     * moves in the opposite direction. Use {@link Observable#distinct(rx.functions.Func1)
+     * distinct(Map.Entry::getKey)} if duplicates must be avoided.
+     */
+    @Override
+    public Observable<? extends Map.Entry<? extends K, ? extends V>>
+    entrySet(Filter filter, Comparator<? super V> comparator)
+        {
+        return Observable.defer(() ->
+                {
+                int          cPagePartitions = m_paging.getPartitions();
+                List<Filter> listFilters     = getPartitionFilters(filter, cPagePartitions > 0 ? cPagePartitions : 1);
+
+                return SortedMerge.observe(this, listFilters, comparator, SORTED_RUN_CHUNK_SIZE);
+                });
         }
 
     @Override
     public <R> Observable<R> aggregate(Collection<? extends K> collKeys,
                                        InvocableMap.EntryAggregator<? super K, ? super V, R> aggregator)
         {
-        return Observable
-                .create(s -> m_cache.aggregate(collKeys, aggregator)
-                        .handle((r, t) ->
-                                {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onNext(r);
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
-
-                                return null;
-                                }));
+        return fromFuture(() -> m_cache.aggregate(collKeys, aggregator));
         }
 
     @Override
     public <R> Observable<R> aggregate(Filter filter,
                                        InvocableMap.EntryAggregator<? super K, ? super V, R> aggregator)
         {
-        return Observable
-                .create(s -> m_cache.aggregate(filter, aggregator)
-                        .handle((r, t) ->
-                                {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onNext(r);
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
-
-                                return null;
-                                }));
+        return fromFuture(() -> m_cache.aggregate(filter, aggregator));
         }
 
     @Override
     public Observable<Void> putAll(Map<? extends K, ? extends V> map)
         {
-        return Observable
-                .create(s -> m_cache.putAll(map)
-                        .handle((r, t) ->
+        return invalidateOnTerminate(fromCallbacks(callback -> m_cache.putAll(map)), map.keySet());
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All the per-key Observables of this cache share a single listener
+     * registration with the cluster, and the events are routed to the
+     * subscribers for each key by a client-side index, so the cost of
+     * registering for and dispatching the events does not grow with the
+     * number of observed keys. The registration is added when the first key
+     * is subscribed to, and removed when the last subscriber unsubscribes.
+     * <p>
+     * Note that the shared registration is for all the entries in the cache,
+     * so while any key is observed, every change to the cache is sent to this
+     * client and discarded unless its key is observed. This is the right
+     * trade-off when many keys are observed, or the cache changes
+     * infrequently; to observe a few keys of a busy cache, use an {@link
+     * ObservableMapListener} registered with a key-based filter instead.
+     */
+    @Override
+    public Observable<MapEvent<K, V>> observeKey(K key)
+        {
+        return m_listenerKeys.forKey(key);
+        }
+
+    @Override
+    public NamedCache<K, V> getNamedCache()
+        {
+        return m_cache.getNamedCache();
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Invalidate the front cache entries for the specified keys once the
+     * specified write operation terminates, if near or negative caching is
+     * enabled.
+     * <p>
+     * The front cache is also invalidated by the events raised by the write,
+     * but invalidating it as soon as the operation completes ensures that
+     * subsequent gets issued by the caller will observe the write.
+     *
+     * @param <T>        the type of values emitted by the operation
+     * @param observable the Observable that performs the write operation
+     * @param collKeys   the keys affected by the write operation
+     *
+     * @return an {@link Observable} that will perform the write operation
+     */
+    protected <T> Observable<T> invalidateOnTerminate(Observable<T> observable, Collection<?> collKeys)
+        {
+        FrontCache<K, V> front = m_front;
+
+        return front == null ? observable : observable.doOnTerminate(() -> front.invalidateAll(collKeys));
+        }
+
+    /**
+     * Discard the contents of the front cache once the specified write
+     * operation terminates, if near or negative caching is enabled.
+     * <p>
+     * This is used by the filter-based writes, whose affected keys are not
+     * known on the client.
+     *
+     * @param <T>        the type of values emitted by the operation
+     * @param observable the Observable that performs the write operation
+     *
+     * @return an {@link Observable} that will perform the write operation
+     */
+    protected <T> Observable<T> clearOnTerminate(Observable<T> observable)
+        {
+        FrontCache<K, V> front = m_front;
+
+        return front == null ? observable : observable.doOnTerminate(front::clear);
+        }
+
+    /**
+     * Invoke the passed EntryProcessor against the entry specified by the
+     * passed key without invalidating the front cache.
+     * <p>
+     * This method is used by the operations that only read the entry, and
+     * must only be called with processors that do not modify it.
+     *
+     * @param <R>       the type of value returned by the EntryProcessor
+     * @param key       the key to process
+     * @param processor the EntryProcessor to use to process the specified key
+     *
+     * @return an {@link Observable} that will emit the result of the invocation
+     */
+    protected <R> Observable<R> read(K key, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return fromFuture(() -> m_cache.invoke(key, processor));
+        }
+
+    /**
+     * Invoke the passed EntryProcessor against the entries specified by the
+     * passed keys without invalidating the front cache, splitting the keys
+     * into batches according to the {@link KeyBatching} option.
+     * <p>
+     * This method is used by the operations that only read the entries, and
+     * must only be called with processors that do not modify them.
+     *
+     * @param <R>       the type of value returned by the EntryProcessor
+     * @param collKeys  the keys to process
+     * @param processor the EntryProcessor to use to process the specified keys
+     *
+     * @return an {@link Observable} that will emit the result of the invocation
+     *         for each entry
+     */
+    protected <R> Observable<? extends Map.Entry<? extends K, ? extends R>>
+    readAll(Collection<? extends K> collKeys, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return Observable.defer(() ->
+                {
+                List<List<K>> listBatches = getKeyBatches(collKeys);
+
+                return listBatches == null
+                       ? invokeAllStreaming(collKeys, processor)
+                       : Observable.from(listBatches)
+                               .<Map.Entry<? extends K, ? extends R>>flatMap(listKeys ->
+                                       invokeAllStreaming(listKeys, processor), m_batching.getMaxInFlight());
+                });
+        }
+
+    /**
+     * Invoke the passed EntryProcessor against the entries specified by the
+     * passed keys, emitting the result for each entry as soon as it is
+     * received.
+     *
+     * @param <R>       the type of value returned by the EntryProcessor
+     * @param collKeys  the keys to process
+     * @param processor the EntryProcessor to use to process the specified keys
+     *
+     * @return an {@link Observable} that will emit the result of the invocation
+     *         for each entry
+     */
+    protected <R> Observable<Map.Entry<? extends K, ? extends R>>
+    invokeAllStreaming(Collection<? extends K> collKeys, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return RxNamedCacheImpl.<Map.Entry<? extends K, ? extends R>>fromCallbacks(callback ->
+                m_cache.invokeAll(collKeys, processor, callback));
+        }
+
+    /**
+     * Invoke the passed EntryProcessor against the set of entries that are
+     * selected by the given Filter, emitting the result for each entry as soon
+     * as it is received.
+     *
+     * @param <R>       the type of value returned by the EntryProcessor
+     * @param filter    a Filter that results in the set of keys to be
+     *                  processed
+     * @param processor the EntryProcessor to use to process the specified keys
+     *
+     * @return an {@link Observable} that will emit the result of the invocation
+     *         for each entry
+     */
+    protected <R> Observable<Map.Entry<? extends K, ? extends R>>
+    invokeAllStreaming(Filter filter, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return RxNamedCacheImpl.<Map.Entry<? extends K, ? extends R>>fromCallbacks(callback ->
+                m_cache.invokeAll(filter, processor, callback));
+        }
+
+    /**
+     * Invoke the passed EntryProcessor against the set of entries that are
+     * selected by the given (partitioned) Filter, and emit the results once
+     * all of them have been received.
+     *
+     * @param <R>       the type of value returned by the EntryProcessor
+     * @param filter    a PartitionedFilter that results in the set of keys to
+     *                  be processed
+     * @param processor the EntryProcessor to use to process the specified keys
+     *
+     * @return an {@link Observable} that will emit the result of the invocation
+     *         for each entry, honoring the backpressure requested by the
+     *         subscriber
+     */
+    protected <R> Observable<Map.Entry<? extends K, ? extends R>>
+    invokeAllPage(PartitionedFilter filter, InvocableMap.EntryProcessor<K, V, R> processor)
+        {
+        return fromFuture(() -> m_cache.invokeAll(filter, processor))
+                .<Map.Entry<? extends K, ? extends R>>flatMapIterable(Map::entrySet);
+        }
+
+    /**
+     * Query the keys of the entries that are selected by the given Filter, and
+     * emit them once all of them have been received.
+     * <p>
+     * Unlike {@link #invokeAll(Filter, InvocableMap.EntryProcessor)}, this
+     * method executes a parallel aggregation that only extracts the keys of
+     * the selected entries, so it does not lock the entries, and their values
+     * are neither deserialized nor sent to the client. The aggregation is
+     * executed asynchronously, and is cancelled if the subscriber unsubscribes
+     * before it completes.
+     *
+     * @param filter the Filter object representing the criteria that the
+     *               entries should satisfy
+     *
+     * @return an {@link Observable} that will emit the keys for entries that
+     *         satisfy the specified criteria
+     */
+    protected Observable<K> keySetPage(Filter filter)
+        {
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        InvocableMap.EntryAggregator<K, V, Set<K>> aggregator =
+                new DistinctValues(new KeyExtractor(IdentityExtractor.INSTANCE));
+
+        return aggregate(filter, aggregator)
+                .flatMapIterable(setKeys -> setKeys == null ? Collections.<K>emptySet() : setKeys);
+        }
+
+    /**
+     * Create an {@link Observable} that will emit the result of the future
+     * returned by the specified supplier and complete.
+     * <p>
+     * The supplier is called for each subscription, and the future it returns
+     * is cancelled if the subscriber unsubscribes before it completes.
+     *
+     * @param <T>      the type of the result
+     * @param supplier the supplier of the future to observe
+     *
+     * @return an {@link Observable} that will emit the result of the future
+     */
+    protected static <T> Observable<T> fromFuture(Supplier<? extends CompletableFuture<? extends T>> supplier)
+        {
+        return Observable.create(s ->
+                {
+                CompletableFuture<? extends T> future = supplier.get();
+
+                s.add(Subscriptions.create(() -> future.cancel(true)));
+                future.handle((r, t) ->
+                        {
+                        if (!s.isUnsubscribed())
+                            {
+                            if (t == null)
+                                {
+                                s.onNext(r);
+                                s.onCompleted();
+                                }
+                            else
+                                {
+                                s.onError(t);
+                                }
+                            }
+
+                        return null;
+                        });
+                });
+        }
+
+    /**
+     * Create an {@link Observable} that will emit each value passed to the
+     * callback of an asynchronous operation, and complete when the future
+     * returned by the operation completes.
+     * <p>
+     * The operation is started for each subscription, and the future it
+     * returns is cancelled if the subscriber unsubscribes before it completes,
+     * in which case any values that are still delivered to the callback are
+     * discarded.
+     *
+     * @param <T>       the type of the values passed to the callback
+     * @param operation the function that starts the operation using the
+     *                  specified callback, and returns its future
+     *
+     * @return an {@link Observable} that will emit the values passed to the
+     *         callback
+     */
+    protected static <T> Observable<T> fromCallbacks(Function<Consumer<T>, ? extends CompletableFuture<?>> operation)
+        {
+        return Observable.create(s ->
+                {
+                CompletableFuture<?> future = operation.apply(value ->
+                        {
+                        if (!s.isUnsubscribed())
+                            {
+                            s.onNext(value);
+                            }
+                        });
+
+                s.add(Subscriptions.create(() -> future.cancel(true)));
+                future.handle((r, t) ->
+                        {
+                        if (!s.isUnsubscribed())
+                            {
+                            if (t == null)
+                                {
+                                s.onCompleted();
+                                }
+                            else
                                 {
-                                if (!s.isUnsubscribed())
-                                    {
-                                    if (t == null)
-                                        {
-                                        s.onCompleted();
-                                        }
-                                    else
-                                        {
-                                        s.onError(t);
-                                        }
-                                    }
-
-                                return null;
-                                }));
+                                s.onError(t);
+                                }
+                            }
+
+                        return null;
+                        });
+                });
+        }
+
+    /**
+     * Return the sets of partitions that filter-based queries should be
+     * executed against, one at a time.
+     *
+     * @return the list of partition sets to query, or {@code null} if the
+     *         queries should not be paged
+     */
+    protected List<PartitionSet> getPartitionPages()
+        {
+        return getPartitionPages(m_paging.getPartitions());
+        }
+
+    /**
+     * Return the sets of partitions of the specified size that filter-based
+     * queries should be executed against, one at a time.
+     *
+     * @param cPagePartitions the number of partitions in each set, or zero to
+     *                        disable paging
+     *
+     * @return the list of partition sets to query, or {@code null} if the
+     *         queries should not be paged
+     */
+    protected List<PartitionSet> getPartitionPages(int cPagePartitions)
+        {
+        if (cPagePartitions <= 0)
+            {
+            return null;
+            }
+
+        CacheService service = m_cache.getNamedCache().getCacheService();
+        if (!(service instanceof PartitionedService))
+            {
+            return null;
+            }
+
+        int                cPartitions = ((PartitionedService) service).getPartitionCount();
+        List<PartitionSet> listPages   = new ArrayList<>((cPartitions + cPagePartitions - 1) / cPagePartitions);
+
+        for (int nFirst = 0; nFirst < cPartitions; nFirst += cPagePartitions)
+            {
+            PartitionSet parts = new PartitionSet(cPartitions);
+            for (int nPart = nFirst, nLast = Math.min(nFirst + cPagePartitions, cPartitions); nPart < nLast; nPart++)
+                {
+                parts.add(nPart);
+                }
+            listPages.add(parts);
+            }
+
+        return listPages;
+        }
+
+    /**
+     * Group the specified keys by the storage member that currently owns them.
+     *
+     * @param service  the partitioned service the cache belongs to
+     * @param collKeys the keys to group
+     *
+     * @return the list of key groups, one for each owner, or {@code null} if
+     *         all the keys are owned by the same member
+     */
+    protected List<List<K>> getOwnerBatches(PartitionedService service, Collection<? extends K> collKeys)
+        {
+        Map<Member, List<K>> mapOwner = new HashMap<>();
+
+        for (K key : collKeys)
+            {
+            mapOwner.computeIfAbsent(service.getKeyOwner(key), member -> new ArrayList<>()).add(key);
+            }
+
+        return mapOwner.size() <= 1 ? null : new ArrayList<>(mapOwner.values());
+        }
+
+    /**
+     * Return a list of filters that select the entries satisfying the
+     * specified filter, one for each set of partitions of the specified size.
+     *
+     * @param filter          the filter to restrict to each set of partitions
+     * @param cPagePartitions the number of partitions in each set, or zero to
+     *                        disable paging
+     *
+     * @return a list of filters, or a singleton list containing the specified
+     *         filter if paging is disabled or the cache is not partitioned
+     */
+    protected List<Filter> getPartitionFilters(Filter filter, int cPagePartitions)
+        {
+        List<PartitionSet> listPages = getPartitionPages(cPagePartitions);
+        if (listPages == null)
+            {
+            return Collections.singletonList(filter);
+            }
+
+        List<Filter> listFilters = new ArrayList<>(listPages.size());
+        for (PartitionSet parts : listPages)
+            {
+            listFilters.add(new PartitionedFilter(filter, parts));
+            }
+
+        return listFilters;
+        }
+
+    /**
+     * Split the specified keys into batches according to the {@link
+     * KeyBatching} option.
+     * <p>
+     * For partitioned caches, the keys are ordered by partition before they
+     * are split, so that each batch targets as few partitions as possible.
+     *
+     * @param collKeys the keys to split
+     *
+     * @return the list of key batches, or {@code null} if the keys should be
+     *         sent in a single request
+     */
+    protected List<List<K>> getKeyBatches(Collection<? extends K> collKeys)
+        {
+        CacheService service = m_cache.getNamedCache().getCacheService();
+
+        if (m_batching.isByOwner())
+            {
+            return service instanceof PartitionedService
+                   ? getOwnerBatches((PartitionedService) service, collKeys)
+                   : null;
+            }
+
+        int cBatchSize = m_batching.getBatchSize();
+        if (cBatchSize <= 0 || collKeys.size() <= cBatchSize)
+            {
+            return null;
+            }
+
+        Collection<? extends K> collOrdered = collKeys;
+
+        if (service instanceof PartitionedService)
+            {
+            KeyPartitioningStrategy strategy     = ((PartitionedService) service).getKeyPartitioningStrategy();
+            Map<Integer, List<K>>   mapPartition = new TreeMap<>();
+
+            for (K key : collKeys)
+                {
+                mapPartition.computeIfAbsent(strategy.getKeyPartition(key), nPart -> new ArrayList<>()).add(key);
+                }
+
+            List<K> listOrdered = new ArrayList<>(collKeys.size());
+            mapPartition.values().forEach(listOrdered::addAll);
+            collOrdered = listOrdered;
+            }
+
+        List<List<K>> listBatches = new ArrayList<>((collKeys.size() + cBatchSize - 1) / cBatchSize);
+        List<K>       listBatch   = null;
+
+        for (K key : collOrdered)
+            {
+            if (listBatch == null || listBatch.size() == cBatchSize)
+                {
+                listBatch = new ArrayList<>(cBatchSize);
+                listBatches.add(listBatch);
+                }
+            listBatch.add(key);
+            }
+
+        return listBatches;
+        }
+
+    /**
+     * Return the last option of the specified type from the given array of
+     * options, or the default value if the array does not contain one.
+     *
+     * @param <O>        the type of the option
+     * @param options    the options to search
+     * @param clzOption  the class of the option to return
+     * @param optDefault the value to return if no option of the specified
+     *                   type is present
+     *
+     * @return the option of the specified type
+     */
+    protected static <O extends Option> O getOption(Option[] options, Class<O> clzOption, O optDefault)
+        {
+        O optResult = optDefault;
+        if (options != null)
+            {
+            for (Option option : options)
+                {
+                if (clzOption.isInstance(option))
+                    {
+                    optResult = clzOption.cast(option);
+                    }
+                }
+            }
+
+        return optResult;
+        }
+
+    // ---- inner class: Loader ---------------------------------------------
+
+    /**
+     * Retrieves the results of a processor for individual keys, sharing the
+     * requests for the same key if the {@link SingleFlight} option is
+     * enabled, and merging the requests for different keys into batches if
+     * the {@link GetBatching} option is enabled.
+     *
+     * @param <R> the type of the processor results
+     */
+    protected class Loader<R>
+        {
+        /**
+         * Construct Loader instance.
+         *
+         * @param processor     the processor that retrieves the result for
+         *                      each key
+         * @param batching      the option that determines whether the
+         *                      requests should be batched
+         * @param fSingleFlight flag specifying whether concurrent requests
+         *                      for the same key should be shared
+         */
+        protected Loader(InvocableMap.EntryProcessor<K, V, R> processor, GetBatching batching,
+                         boolean fSingleFlight)
+            {
+            m_processor = processor;
+            m_batcher   = batching.getMaxBatch() > 0
+                          ? new GetBatcher<>(setKeys -> readAll(setKeys, processor), batching.getMaxBatch(),
+                                             batching.getMaxDelayMillis(), Schedulers.computation())
+                          : null;
+            m_mapGets   = fSingleFlight ? new ConcurrentHashMap<>() : null;
+            }
+
+        /**
+         * Retrieve the result for the specified key, sharing the request with
+         * any concurrent requests for the same key if enabled.
+         *
+         * @param key the key to retrieve the result for
+         *
+         * @return an {@link Observable} that will emit the result for the key
+         */
+        protected Observable<R> get(K key)
+            {
+            ConcurrentMap<K, Observable<R>> mapGets = m_mapGets;
+            if (mapGets == null)
+                {
+                return load(key);
+                }
+
+            return Observable.defer(() ->
+                    {
+                    Observable<R> observable = mapGets.get(key);
+                    if (observable == null)
+                        {
+                        // the request removes itself once it terminates, so
+                        // that the next get for the same key will send a new one
+                        Observable<R> shared = load(key)
+                                .doOnTerminate(() -> mapGets.remove(key))
+                                .cache();
+
+                        observable = mapGets.putIfAbsent(key, shared);
+                        if (observable == null)
+                            {
+                            observable = shared;
+                            }
+                        }
+
+                    return observable;
+                    });
+            }
+
+        /**
+         * Retrieve the result for the specified key, either directly or as
+         * part of a batch if enabled.
+         *
+         * @param key the key to retrieve the result for
+         *
+         * @return an {@link Observable} that will emit the result for the key
+         */
+        protected Observable<R> load(K key)
+            {
+            GetBatcher<K, R> batcher = m_batcher;
+
+            return batcher == null ? read(key, m_processor) : batcher.get(key);
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The processor that retrieves the result for each key.
+         */
+        protected final InvocableMap.EntryProcessor<K, V, R> m_processor;
+
+        /**
+         * The loader that merges individual requests into batches, or {@code
+         * null} if the {@link GetBatching} option is not enabled.
+         */
+        protected final GetBatcher<K, R> m_batcher;
+
+        /**
+         * The shared requests that are currently in flight, keyed by the key
+         * they retrieve, or {@code null} if the {@link SingleFlight} option is
+         * not enabled.
+         */
+        protected final ConcurrentMap<K, Observable<R>> m_mapGets;
         }
 
+    // ---- constants -------------------------------------------------------
+
+    /**
+     * The number of entries to retrieve at a time from each sorted run.
+     */
+    protected static final int SORTED_RUN_CHUNK_SIZE = 1024;
+
+    /**
+     * The number of partitions to query the keys of at a time if the {@link
+     * PartitionPaging} option is not enabled.
+     */
+    protected static final int KEY_SET_PAGE_PARTITIONS = 32;
+
     // ---- data members ----------------------------------------------------
 
     /**
      * The wrapped AsyncNamedCache instance to delegate invocations to.
      */
     protected final AsyncNamedCache<K, V> m_cache;
+
+    /**
+     * The option that determines whether filter-based queries should be
+     * executed one set of partitions at a time.
+     */
+    protected final PartitionPaging m_paging;
+
+    /**
+     * The option that determines whether key-based bulk operations should be
+     * split into several smaller requests.
+     */
+    protected final KeyBatching m_batching;
+
+    /**
+     * The loader used by get if neither near nor negative caching is enabled,
+     * or {@code null} if either of them is.
+     */
+    protected final Loader<V> m_loader;
+
+    /**
+     * The loader used by the front cache, which also retrieves the expiry of
+     * each entry, or {@code null} if neither near nor negative caching is
+     * enabled.
+     */
+    protected final Loader<ExpiringValue<V>> m_loaderExpiring;
+
+    /**
+     * The front cache that holds the values returned by get and the keys
+     * known to be absent, or {@code null} if neither the {@link NearCaching}
+     * nor the {@link NegativeCaching} option is enabled.
+     */
+    protected final FrontCache<K, V> m_front;
+
+    /**
+     * The listener shared by the per-key Observables, which is registered
+     * with the cache while any key is observed.
+     */
+    protected final ObservableMapListener<K, V> m_listenerKeys;
     }
@@ -0,0 +1,505 @@
+/*
+ * File: SortedEntriesAggregator.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.tangosol.io.ExternalizableLite;
+import com.tangosol.io.Serializer;
+
+import com.tangosol.io.pof.PofReader;
+import com.tangosol.io.pof.PofWriter;
+import com.tangosol.io.pof.PortableObject;
+
+import com.tangosol.util.Base;
+import com.tangosol.util.Binary;
+import com.tangosol.util.BinaryEntry;
+import com.tangosol.util.ExternalizableHelper;
+import com.tangosol.util.InvocableMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+
+/**
+ * An aggregator that returns the first N entries of the aggregated set,
+ * sorted by value.
+ * <p>
+ * Each storage member only retains the first N entries from its own
+ * partitions, and the partial results are merged on the client, so the amount
+ * of data sent over the network is bounded by the limit and the number of
+ * storage members, rather than by the size of the aggregated set.
+ * <p>
+ * Entries whose values are equal according to the comparator are ordered by
+ * their serialized keys, which makes the order of the results deterministic.
+ * <p>
+ * This class supports both Java and POF serialization; caches that use POF
+ * must include {@code coherence-rx-pof-config.xml} in their POF
+ * configuration.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+public class SortedEntriesAggregator<K, V>
+        implements InvocableMap.StreamingAggregator<K, V,
+                                                    List<SortedEntriesAggregator.SortedEntry<K, V>>,
+                                                    List<SortedEntriesAggregator.SortedEntry<K, V>>>,
+                   ExternalizableLite, PortableObject
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Deserialization constructor.
+     */
+    public SortedEntriesAggregator()
+        {
+        }
+
+    /**
+     * Construct SortedEntriesAggregator instance.
+     *
+     * @param comparator the comparator to sort the values with, or {@code
+     *                   null} to sort them in their natural order; must be
+     *                   serializable
+     * @param cLimit     the maximum number of entries to return
+     */
+    public SortedEntriesAggregator(Comparator<? super V> comparator, int cLimit)
+        {
+        this(comparator, cLimit, null);
+        }
+
+    /**
+     * Construct SortedEntriesAggregator instance that will only return the
+     * entries that follow the specified anchor entry in the sort order.
+     * <p>
+     * This allows a large sorted result to be retrieved in chunks, by passing
+     * the last entry of the previous chunk as the anchor for the next one.
+     *
+     * @param comparator the comparator to sort the values with, or {@code
+     *                   null} to sort them in their natural order; must be
+     *                   serializable
+     * @param cLimit     the maximum number of entries to return
+     * @param anchor     the entry that all returned entries must follow, or
+     *                   {@code null} to return the first entries
+     */
+    public SortedEntriesAggregator(Comparator<? super V> comparator, int cLimit, SortedEntry<K, V> anchor)
+        {
+        if (cLimit <= 0)
+            {
+            throw new IllegalArgumentException("the limit must be positive");
+            }
+
+        m_comparator = comparator;
+        m_cLimit     = cLimit;
+        m_anchor     = anchor == null ? null : new SortedEntry<>(anchor.getBinaryKey(), anchor.getValue());
+        }
+
+    // ---- StreamingAggregator interface -----------------------------------
+
+    @Override
+    public InvocableMap.StreamingAggregator<K, V, List<SortedEntry<K, V>>, List<SortedEntry<K, V>>> supply()
+        {
+        return new SortedEntriesAggregator<>(m_comparator, m_cLimit, m_anchor);
+        }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean accumulate(InvocableMap.Entry<? extends K, ? extends V> entry)
+        {
+        Binary binKey = entry instanceof BinaryEntry
+                        ? ((BinaryEntry) entry).getBinaryKey()
+                        : ExternalizableHelper.toBinary(entry.getKey());
+
+        SortedEntry<K, V> candidate = new SortedEntry<>(binKey, entry.getValue());
+
+        if (isCandidate(candidate))
+            {
+            add(candidate);
+            }
+
+        return true;
+        }
+
+    @Override
+    public boolean combine(List<SortedEntry<K, V>> listPartial)
+        {
+        for (SortedEntry<K, V> entry : listPartial)
+            {
+            if (isCandidate(entry))
+                {
+                add(entry);
+                }
+            }
+
+        return true;
+        }
+
+    @Override
+    public List<SortedEntry<K, V>> getPartialResult()
+        {
+        return new ArrayList<>(ensureQueue());
+        }
+
+    @Override
+    public List<SortedEntry<K, V>> finalizeResult()
+        {
+        List<SortedEntry<K, V>> listResult = new ArrayList<>(ensureQueue());
+        listResult.sort(getEntryComparator());
+
+        return listResult;
+        }
+
+    @Override
+    public int characteristics()
+        {
+        return PARALLEL;
+        }
+
+    // ---- ExternalizableLite interface ------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void readExternal(DataInput in) throws IOException
+        {
+        m_comparator = (Comparator<? super V>) ExternalizableHelper.readObject(in);
+        m_cLimit     = in.readInt();
+        m_anchor     = (SortedEntry<K, V>) ExternalizableHelper.readObject(in);
+        }
+
+    @Override
+    public void writeExternal(DataOutput out) throws IOException
+        {
+        ExternalizableHelper.writeObject(out, m_comparator);
+        out.writeInt(m_cLimit);
+        ExternalizableHelper.writeObject(out, m_anchor);
+        }
+
+    // ---- PortableObject interface ----------------------------------------
+
+    @Override
+    public void readExternal(PofReader in) throws IOException
+        {
+        m_comparator = in.readObject(0);
+        m_cLimit     = in.readInt(1);
+        m_anchor     = in.readObject(2);
+        }
+
+    @Override
+    public void writeExternal(PofWriter out) throws IOException
+        {
+        out.writeObject(0, m_comparator);
+        out.writeInt(1, m_cLimit);
+        out.writeObject(2, m_anchor);
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Return {@code true} if the specified entry follows the anchor and would
+     * be within the limit if added to the result.
+     *
+     * @param entry the entry to check
+     *
+     * @return {@code true} if the entry should be added to the result
+     */
+    protected boolean isCandidate(SortedEntry<K, V> entry)
+        {
+        Comparator<SortedEntry<K, V>> comparator = getEntryComparator();
+
+        if (m_anchor != null && comparator.compare(entry, m_anchor) <= 0)
+            {
+            return false;
+            }
+
+        PriorityQueue<SortedEntry<K, V>> queue = ensureQueue();
+
+        return queue.size() < m_cLimit || comparator.compare(entry, queue.peek()) < 0;
+        }
+
+    /**
+     * Add the specified entry to the result, evicting the last retained entry
+     * if the limit has been exceeded.
+     *
+     * @param entry the entry to add
+     */
+    protected void add(SortedEntry<K, V> entry)
+        {
+        PriorityQueue<SortedEntry<K, V>> queue = ensureQueue();
+
+        queue.add(entry);
+        if (queue.size() > m_cLimit)
+            {
+            queue.poll();
+            }
+        }
+
+    /**
+     * Return the queue of retained entries, with the last of them (according
+     * to the sort order) at its head, creating it if necessary.
+     *
+     * @return the queue of retained entries
+     */
+    protected PriorityQueue<SortedEntry<K, V>> ensureQueue()
+        {
+        PriorityQueue<SortedEntry<K, V>> queue = m_queue;
+        if (queue == null)
+            {
+            queue = m_queue = new PriorityQueue<>(Math.min(m_cLimit, 1024) + 1,
+                                                  Collections.reverseOrder(getEntryComparator()));
+            }
+
+        return queue;
+        }
+
+    /**
+     * Return the comparator that defines the order of the entries.
+     *
+     * @return the comparator that defines the order of the entries
+     */
+    protected Comparator<SortedEntry<K, V>> getEntryComparator()
+        {
+        Comparator<SortedEntry<K, V>> comparator = m_comparatorEntry;
+        if (comparator == null)
+            {
+            comparator = m_comparatorEntry = createEntryComparator(m_comparator);
+            }
+
+        return comparator;
+        }
+
+    /**
+     * Create a comparator that orders entries by value, using the specified
+     * value comparator, and then by their serialized keys.
+     *
+     * @param <K>        the type of the entry keys
+     * @param <V>        the type of the entry values
+     * @param comparator the comparator to sort the values with, or {@code
+     *                   null} to sort them in their natural order
+     *
+     * @return a comparator for the entries
+     */
+    @SuppressWarnings("unchecked")
+    protected static <K, V> Comparator<SortedEntry<K, V>> createEntryComparator(Comparator<? super V> comparator)
+        {
+        Comparator<? super V> comparatorValue = comparator == null
+                                                ? (v1, v2) -> ((Comparable) v1).compareTo(v2)
+                                                : comparator;
+
+        return (e1, e2) ->
+            {
+            int nResult = comparatorValue.compare(e1.getValue(), e2.getValue());
+            return nResult == 0 ? e1.getBinaryKey().compareTo(e2.getBinaryKey()) : nResult;
+            };
+        }
+
+    // ---- inner class: SortedEntry ----------------------------------------
+
+    /**
+     * An immutable entry returned by the SortedEntriesAggregator.
+     * <p>
+     * Only the serialized form of the key is sent over the network; the key
+     * is deserialized on first access, using the serializer the entry itself
+     * was deserialized with.
+     *
+     * @param <K> the type of the entry key
+     * @param <V> the type of the entry value
+     */
+    public static class SortedEntry<K, V>
+            implements Map.Entry<K, V>, ExternalizableLite, PortableObject
+        {
+        /**
+         * Deserialization constructor.
+         */
+        public SortedEntry()
+            {
+            }
+
+        /**
+         * Construct SortedEntry instance.
+         *
+         * @param binKey the serialized key
+         * @param value  the value
+         */
+        public SortedEntry(Binary binKey, V value)
+            {
+            m_binKey = binKey;
+            m_value  = value;
+            }
+
+        /**
+         * Return the serialized key.
+         *
+         * @return the serialized key
+         */
+        public Binary getBinaryKey()
+            {
+            return m_binKey;
+            }
+
+        // ---- Map.Entry interface -----------------------------------------
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey()
+            {
+            K key = m_key;
+            if (key == null && m_binKey != null)
+                {
+                Serializer serializer = m_serializer;
+
+                key = m_key = (K) (serializer == null
+                                   ? ExternalizableHelper.fromBinary(m_binKey)
+                                   : ExternalizableHelper.fromBinary(m_binKey, serializer));
+                }
+
+            return key;
+            }
+
+        @Override
+        public V getValue()
+            {
+            return m_value;
+            }
+
+        @Override
+        public V setValue(V value)
+            {
+            throw new UnsupportedOperationException();
+            }
+
+        // ---- ExternalizableLite interface --------------------------------
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void readExternal(DataInput in) throws IOException
+            {
+            m_binKey = (Binary) ExternalizableHelper.readObject(in);
+            m_value  = (V) ExternalizableHelper.readObject(in);
+            }
+
+        @Override
+        public void writeExternal(DataOutput out) throws IOException
+            {
+            ExternalizableHelper.writeObject(out, m_binKey);
+            ExternalizableHelper.writeObject(out, m_value);
+            }
+
+        // ---- PortableObject interface ------------------------------------
+
+        @Override
+        public void readExternal(PofReader in) throws IOException
+            {
+            m_binKey     = in.readBinary(0);
+            m_value      = in.readObject(1);
+            m_serializer = in.getPofContext();
+            }
+
+        @Override
+        public void writeExternal(PofWriter out) throws IOException
+            {
+            out.writeBinary(0, m_binKey);
+            out.writeObject(1, m_value);
+            }
+
+        // ---- Object methods ----------------------------------------------
+
+        @Override
+        public boolean equals(Object o)
+            {
+            if (!(o instanceof Map.Entry))
+                {
+                return false;
+                }
+
+            Map.Entry that = (Map.Entry) o;
+            return Base.equals(getKey(), that.getKey()) && Base.equals(m_value, that.getValue());
+            }
+
+        @Override
+        public int hashCode()
+            {
+            return Base.hashCode(getKey()) ^ Base.hashCode(m_value);
+            }
+
+        @Override
+        public String toString()
+            {
+            return getKey() + "=" + m_value;
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The serialized key.
+         */
+        private Binary m_binKey;
+
+        /**
+         * The value.
+         */
+        private V m_value;
+
+        /**
+         * The key, once deserialized.
+         */
+        private transient K m_key;
+
+        /**
+         * The serializer to deserialize the key with, or {@code null} to use
+         * the default serializer.
+         */
+        private transient Serializer m_serializer;
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The comparator to sort the values with.
+     */
+    protected Comparator<? super V> m_comparator;
+
+    /**
+     * The maximum number of entries to return.
+     */
+    protected int m_cLimit;
+
+    /**
+     * The entry that all returned entries must follow, if any.
+     */
+    protected SortedEntry<K, V> m_anchor;
+
+    /**
+     * The comparator that defines the order of the entries.
+     */
+    protected transient Comparator<SortedEntry<K, V>> m_comparatorEntry;
+
+    /**
+     * The queue of retained entries.
+     */
+    protected transient PriorityQueue<SortedEntry<K, V>> m_queue;
+    }
@@ -0,0 +1,384 @@
+/*
+ * File: SortedMerge.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import com.oracle.coherence.rx.SortedEntriesAggregator.SortedEntry;
+
+import com.tangosol.util.Filter;
+
+import rx.Observable;
+
+import rx.observables.AsyncOnSubscribe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+
+/**
+ * A k-way merge of sorted runs, each of which is retrieved lazily from the
+ * cluster in chunks of a fixed size.
+ * <p>
+ * Each run contains the entries selected by one of the specified filters,
+ * typically a {@link com.tangosol.util.filter.PartitionedFilter} for a set of
+ * partitions, sorted on the storage members using a {@link
+ * SortedEntriesAggregator}. The next chunk of a run is only retrieved once all
+ * the previously retrieved entries from that run have been emitted, so the
+ * client never holds more than one chunk per run.
+ * <p>
+ * As each chunk is retrieved by aggregating the entries of its run again, the
+ * size of the chunks retrieved from a run doubles with each retrieval, up to
+ * {@value #MAX_CHUNK_GROWTH} times the initial size, so that a large run is
+ * only scanned a logarithmic number of times. At most {@value
+ * #MAX_CONCURRENT_FETCHES} chunks are retrieved concurrently.
+ * <p>
+ * Each chunk only contains the entries that follow the last entry of the
+ * previous chunk in the sort order, so an entry whose value is updated
+ * between the retrieval of two chunks of its run may be emitted twice, or not
+ * at all.
+ * <p>
+ * This class is not thread safe, and is meant to be used as the state of an
+ * {@link AsyncOnSubscribe}, which guarantees that the {@link #next(long)}
+ * method is never called concurrently.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+class SortedMerge<K, V>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct SortedMerge instance.
+     *
+     * @param cache       the cache to retrieve the runs from
+     * @param listFilters the filters that select the entries of each run
+     * @param comparator  the comparator to sort the values with, or {@code
+     *                    null} to sort them in their natural order
+     * @param cChunk      the number of entries to retrieve with the first chunk
+     *                    of each run
+     */
+    SortedMerge(RxNamedCache<K, V> cache, List<Filter> listFilters, Comparator<? super V> comparator, int cChunk)
+        {
+        Comparator<SortedEntry<K, V>> comparatorEntry = SortedEntriesAggregator.createEntryComparator(comparator);
+
+        m_cache      = cache;
+        m_comparator = comparator;
+        m_cChunk     = cChunk;
+        m_listRuns   = new ArrayList<>(listFilters.size());
+        m_queueRuns  = new PriorityQueue<>(Math.max(listFilters.size(), 1),
+                                           (r1, r2) -> comparatorEntry.compare(r1.head(), r2.head()));
+
+        for (Filter filter : listFilters)
+            {
+            m_listRuns.add(new Run(filter));
+            }
+        }
+
+    // ---- factory methods -------------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will emit the entries selected by the
+     * specified filters in the order defined by the comparator, retrieving
+     * them from the cluster as the subscriber requests them.
+     *
+     * @param <K>         the type of the entry keys
+     * @param <V>         the type of the entry values
+     * @param cache       the cache to retrieve the runs from
+     * @param listFilters the filters that select the entries of each run
+     * @param comparator  the comparator to sort the values with, or {@code
+     *                    null} to sort them in their natural order
+     * @param cChunk      the number of entries to retrieve with the first chunk
+     *                    of each run
+     *
+     * @return an {@link Observable} that will emit the merged entries
+     */
+    static <K, V> Observable<SortedEntry<K, V>> observe(RxNamedCache<K, V> cache, List<Filter> listFilters,
+                                                        Comparator<? super V> comparator, int cChunk)
+        {
+        return Observable.create(AsyncOnSubscribe.<SortedMerge<K, V>, SortedEntry<K, V>>createStateful(
+                () -> new SortedMerge<>(cache, listFilters, comparator, cChunk),
+                (merge, cRequested, observer) ->
+                    {
+                    if (merge.isDone())
+                        {
+                        observer.onCompleted();
+                        }
+                    else
+                        {
+                        observer.onNext(merge.next(cRequested));
+                        }
+
+                    return merge;
+                    }));
+        }
+
+    // ---- SortedMerge methods ---------------------------------------------
+
+    /**
+     * Return {@code true} if all the entries from all the runs have been
+     * emitted.
+     *
+     * @return {@code true} if the merge is complete
+     */
+    boolean isDone()
+        {
+        if (!m_queueRuns.isEmpty())
+            {
+            return false;
+            }
+
+        for (Run run : m_listRuns)
+            {
+            if (!run.isDone())
+                {
+                return false;
+                }
+            }
+
+        return true;
+        }
+
+    /**
+     * Return an {@link Observable} that will retrieve the next chunk of each
+     * run that has no buffered entries, and then emit up to the requested
+     * number of the next entries in the sort order.
+     * <p>
+     * The returned Observable stops emitting as soon as the buffered entries
+     * of a run that has not been fully retrieved yet are exhausted, as the
+     * next entry in the sort order cannot be determined without retrieving
+     * the next chunk of that run first.
+     *
+     * @param cRequested the maximum number of entries to emit
+     *
+     * @return an {@link Observable} that will emit the next entries
+     */
+    Observable<SortedEntry<K, V>> next(long cRequested)
+        {
+        List<Observable<List<SortedEntry<K, V>>>> listFetches = new ArrayList<>();
+        for (Run run : m_listRuns)
+            {
+            if (run.isEmpty() && !run.isDone())
+                {
+                listFetches.add(run.fetch());
+                }
+            }
+
+        return Observable.merge(listFetches, MAX_CONCURRENT_FETCHES)
+                .toCompletable()
+                .andThen(Observable.defer(() -> Observable.from(drain(cRequested))));
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Remove up to the requested number of the next entries in the sort order
+     * from the run buffers.
+     *
+     * @param cRequested the maximum number of entries to remove
+     *
+     * @return the next entries in the sort order
+     */
+    protected List<SortedEntry<K, V>> drain(long cRequested)
+        {
+        PriorityQueue<Run> queue = m_queueRuns;
+
+        for (Run run : m_listRuns)
+            {
+            if (!run.m_fQueued && !run.isEmpty())
+                {
+                queue.add(run);
+                run.m_fQueued = true;
+                }
+            }
+
+        List<SortedEntry<K, V>> listEntries = new ArrayList<>((int) Math.min(cRequested, m_cChunk));
+        while (listEntries.size() < cRequested && !queue.isEmpty())
+            {
+            Run run = queue.poll();
+
+            listEntries.add(run.m_dequeBuffer.pollFirst());
+            if (run.isEmpty())
+                {
+                run.m_fQueued = false;
+                if (!run.m_fExhausted)
+                    {
+                    break;
+                    }
+                }
+            else
+                {
+                queue.add(run);
+                }
+            }
+
+        return listEntries;
+        }
+
+    // ---- inner class: Run ------------------------------------------------
+
+    /**
+     * A sorted run of entries selected by a single filter.
+     */
+    protected class Run
+        {
+        /**
+         * Construct Run instance.
+         *
+         * @param filter the filter that selects the entries of this run
+         */
+        protected Run(Filter filter)
+            {
+            m_filter = filter;
+            m_cFetch = m_cChunk;
+            }
+
+        /**
+         * Return the next entry of this run.
+         *
+         * @return the next entry of this run
+         */
+        protected SortedEntry<K, V> head()
+            {
+            return m_dequeBuffer.peekFirst();
+            }
+
+        /**
+         * Return {@code true} if there are no buffered entries.
+         *
+         * @return {@code true} if there are no buffered entries
+         */
+        protected boolean isEmpty()
+            {
+            return m_dequeBuffer.isEmpty();
+            }
+
+        /**
+         * Return {@code true} if all the entries of this run have been
+         * retrieved and removed from the buffer.
+         *
+         * @return {@code true} if this run is done
+         */
+        protected boolean isDone()
+            {
+            return m_fExhausted && m_dequeBuffer.isEmpty();
+            }
+
+        /**
+         * Return an {@link Observable} that will retrieve the next chunk of
+         * this run into its buffer.
+         *
+         * @return an {@link Observable} that will emit the retrieved chunk
+         */
+        protected Observable<List<SortedEntry<K, V>>> fetch()
+            {
+            int cFetch = m_cFetch;
+
+            return m_cache.aggregate(m_filter, new SortedEntriesAggregator<K, V>(m_comparator, cFetch, m_anchor))
+                    .doOnNext(listEntries ->
+                        {
+                        m_dequeBuffer.addAll(listEntries);
+                        m_fExhausted = listEntries.size() < cFetch;
+                        m_cFetch     = (int) Math.min((long) cFetch * 2, (long) m_cChunk * MAX_CHUNK_GROWTH);
+                        if (!listEntries.isEmpty())
+                            {
+                            m_anchor = listEntries.get(listEntries.size() - 1);
+                            }
+                        });
+            }
+
+        // ---- data members ------------------------------------------------
+
+        /**
+         * The filter that selects the entries of this run.
+         */
+        protected final Filter m_filter;
+
+        /**
+         * The retrieved entries that have not been emitted yet.
+         */
+        protected final Deque<SortedEntry<K, V>> m_dequeBuffer = new ArrayDeque<>();
+
+        /**
+         * The last retrieved entry of this run.
+         */
+        protected SortedEntry<K, V> m_anchor;
+
+        /**
+         * The number of entries to retrieve with the next chunk.
+         */
+        protected int m_cFetch;
+
+        /**
+         * Flag specifying whether all the entries of this run have been
+         * retrieved.
+         */
+        protected boolean m_fExhausted;
+
+        /**
+         * Flag specifying whether this run is in the merge queue.
+         */
+        protected boolean m_fQueued;
+        }
+
+    // ---- constants -------------------------------------------------------
+
+    /**
+     * The maximum number of chunks to retrieve concurrently.
+     */
+    protected static final int MAX_CONCURRENT_FETCHES = 16;
+
+    /**
+     * The maximum size of a chunk, as a multiple of the initial chunk size.
+     */
+    protected static final int MAX_CHUNK_GROWTH = 16;
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The cache to retrieve the runs from.
+     */
+    protected final RxNamedCache<K, V> m_cache;
+
+    /**
+     * The comparator to sort the values with.
+     */
+    protected final Comparator<? super V> m_comparator;
+
+    /**
+     * The number of entries to retrieve with the first chunk of each run.
+     */
+    protected final int m_cChunk;
+
+    /**
+     * The runs to merge.
+     */
+    protected final List<Run> m_listRuns;
+
+    /**
+     * The runs with buffered entries, ordered by their next entry.
+     */
+    protected final PriorityQueue<Run> m_queueRuns;
+    }
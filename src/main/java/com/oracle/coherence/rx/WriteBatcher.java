@@ -0,0 +1,507 @@
+/*
+ * File: WriteBatcher.java
+ *
+ * Copyright (c) 2015, 2016 Oracle and/or its affiliates.
+ *
+ * You may not use this file except in compliance with the Universal Permissive
+ * License (UPL), Version 1.0 (the "License.")
+ *
+ * You may obtain a copy of the License at https://opensource.org/licenses/UPL.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.oracle.coherence.rx;
+
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+
+import rx.schedulers.Schedulers;
+
+import rx.subscriptions.CompositeSubscription;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A Subscriber that writes the entries it receives into a cache in batches,
+ * using {@link RxNamedCache#putAll(Map)}.
+ * <p>
+ * A batch is written as soon as it reaches the maximum batch size, or when the
+ * maximum delay since its first entry has elapsed, whichever comes first. At
+ * most the specified number of batches are written concurrently, and new
+ * entries are only requested from the upstream Observable as the previous
+ * ones are written, so the number of entries held by the client is bounded
+ * by the batch size and the number of concurrent batches.
+ * <p>
+ * If the same key is received more than once before its batch is written,
+ * either the current batch is closed, so that every update is applied, or, if
+ * coalescing is enabled, the value that is waiting to be written is simply
+ * replaced, whether it is in the batch being filled up or in one that is
+ * queued, so that only the latest value for each key is written.
+ * <p>
+ * The batches are written in the order they were closed, and a batch that
+ * contains a key that is still being written by an earlier batch is held
+ * back until that write completes, so the updates to each key are always
+ * applied in order, regardless of the number of concurrent batches.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ *
+ * @author Aleksandar Seovic  2026.10.18
+ */
+class WriteBatcher<K, V>
+        extends Subscriber<Map.Entry<? extends K, ? extends V>>
+    {
+    // ---- constructors ----------------------------------------------------
+
+    /**
+     * Construct WriteBatcher instance.
+     *
+     * @param cache           the cache to write the entries into
+     * @param subscriber      the subscriber to notify when all the entries
+     *                        have been written
+     * @param cMaxBatch       the maximum number of entries in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before writing it
+     * @param cMaxInFlight    the maximum number of batches to write
+     *                        concurrently
+     * @param fCoalesce       flag specifying whether to replace the pending
+     *                        value of a key instead of writing it
+     * @param scheduler       the scheduler to use for the delayed writes
+     */
+    WriteBatcher(RxNamedCache<K, V> cache, Subscriber<? super Void> subscriber,
+                 int cMaxBatch, long cMaxDelayMillis, int cMaxInFlight, boolean fCoalesce,
+                 Scheduler scheduler)
+        {
+        m_cache           = cache;
+        m_subscriber      = subscriber;
+        m_cMaxBatch       = cMaxBatch;
+        m_cMaxDelayMillis = cMaxDelayMillis;
+        m_cMaxInFlight    = cMaxInFlight;
+        m_fCoalesce       = fCoalesce;
+        m_worker          = scheduler.createWorker();
+        m_subsBatches     = new CompositeSubscription();
+
+        add(m_worker);
+        add(m_subsBatches);
+        }
+
+    // ---- factory methods -------------------------------------------------
+
+    /**
+     * Return an {@link Observable} that will write all the entries emitted by
+     * the specified Observable into the cache in batches, and complete once
+     * all of them have been written.
+     *
+     * @param <K>             the type of the entry keys
+     * @param <V>             the type of the entry values
+     * @param cache           the cache to write the entries into
+     * @param entries         the Observable that emits the entries to write
+     * @param cMaxBatch       the maximum number of entries in a batch
+     * @param cMaxDelayMillis the maximum number of milliseconds to wait for a
+     *                        batch to fill up before writing it
+     * @param cMaxInFlight    the maximum number of batches to write
+     *                        concurrently
+     * @param fCoalesce       flag specifying whether to replace the pending
+     *                        value of a key instead of writing it
+     *
+     * @return an {@link Observable} that will be completed when all the
+     *         entries have been written, but will not emit any values
+     */
+    static <K, V> Observable<Void> putAll(RxNamedCache<K, V> cache,
+                                          Observable<? extends Map.Entry<? extends K, ? extends V>> entries,
+                                          int cMaxBatch, long cMaxDelayMillis, int cMaxInFlight,
+                                          boolean fCoalesce)
+        {
+        if (cMaxBatch <= 0 || cMaxDelayMillis < 0 || cMaxInFlight <= 0)
+            {
+            throw new IllegalArgumentException("the batch size and the number of batches must be positive, "
+                                               + "and the delay must not be negative");
+            }
+
+        return Observable.create(s ->
+                {
+                WriteBatcher<K, V> batcher = new WriteBatcher<>(cache, s, cMaxBatch, cMaxDelayMillis,
+                                                                cMaxInFlight, fCoalesce, Schedulers.computation());
+                s.add(batcher);
+                entries.unsafeSubscribe(batcher);
+                });
+        }
+
+    // ---- Subscriber methods ----------------------------------------------
+
+    @Override
+    public void onStart()
+        {
+        request((long) m_cMaxBatch * (m_cMaxInFlight + 1));
+        }
+
+    @Override
+    public void onNext(Map.Entry<? extends K, ? extends V> entry)
+        {
+        boolean fCoalesced = false;
+
+        synchronized (this)
+            {
+            if (m_fTerminated)
+                {
+                return;
+                }
+
+            K         key       = entry.getKey();
+            V         value     = entry.getValue();
+            Map<K, V> mapQueued = m_fCoalesce ? m_mapQueuedKeys.get(key) : null;
+            boolean   fReplaced = m_mapPending.containsKey(key);
+
+            if (mapQueued != null)
+                {
+                // the key is waiting in a batch that has been closed but not
+                // written yet, so the new value can take the place of the old
+                mapQueued.put(key, value);
+                fCoalesced = true;
+                }
+            else if (fReplaced && m_fCoalesce)
+                {
+                m_mapPending.put(key, value);
+                fCoalesced = true;
+                }
+            else
+                {
+                if (fReplaced)
+                    {
+                    enqueuePending();
+                    }
+
+                boolean fFirst = m_mapPending.isEmpty();
+
+                m_mapPending.put(key, value);
+                if (m_mapPending.size() >= m_cMaxBatch)
+                    {
+                    enqueuePending();
+                    }
+                else if (fFirst)
+                    {
+                    long nBatch = m_nBatch;
+                    m_worker.schedule(() -> onDelayElapsed(nBatch), m_cMaxDelayMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+
+        if (fCoalesced)
+            {
+            // the replaced value will never be written, so the upstream can
+            // send another entry in its place
+            request(1);
+            }
+        else
+            {
+            dispatch();
+            }
+        }
+
+    @Override
+    public void onCompleted()
+        {
+        synchronized (this)
+            {
+            m_fUpstreamDone = true;
+            if (!m_mapPending.isEmpty())
+                {
+                enqueuePending();
+                }
+            }
+
+        dispatch();
+        checkCompleted();
+        }
+
+    @Override
+    public void onError(Throwable t)
+        {
+        terminate(t);
+        }
+
+    // ---- helpers ---------------------------------------------------------
+
+    /**
+     * Write the pending batch if the maximum delay has elapsed before it was
+     * filled up.
+     *
+     * @param nBatch the sequence number of the batch the delay was scheduled
+     *               for
+     */
+    protected void onDelayElapsed(long nBatch)
+        {
+        synchronized (this)
+            {
+            if (nBatch != m_nBatch || m_mapPending.isEmpty())
+                {
+                return;
+                }
+
+            enqueuePending();
+            }
+
+        dispatch();
+        }
+
+    /**
+     * Move the pending batch into the queue of batches that are ready to be
+     * written.
+     * <p>
+     * This method must be called while holding the monitor.
+     */
+    protected void enqueuePending()
+        {
+        Map<K, V> mapBatch = m_mapPending;
+
+        m_queueReady.add(mapBatch);
+        if (m_fCoalesce)
+            {
+            for (K key : mapBatch.keySet())
+                {
+                m_mapQueuedKeys.put(key, mapBatch);
+                }
+            }
+        m_mapPending = new LinkedHashMap<>();
+        m_nBatch++;
+        }
+
+    /**
+     * Write as many of the ready batches, in order, as the maximum number of
+     * concurrent writes allows.
+     * <p>
+     * A batch that contains a key which is still being written by an earlier
+     * batch is not written until that write completes, as the two writes
+     * could otherwise be applied in either order.
+     */
+    protected void dispatch()
+        {
+        while (true)
+            {
+            Map<K, V> mapBatch;
+
+            synchronized (this)
+                {
+                mapBatch = m_queueReady.peek();
+                if (m_fTerminated || m_cInFlight >= m_cMaxInFlight || mapBatch == null
+                    || !Collections.disjoint(m_setInFlightKeys, mapBatch.keySet()))
+                    {
+                    return;
+                    }
+
+                m_queueReady.poll();
+                m_setInFlightKeys.addAll(mapBatch.keySet());
+                m_mapQueuedKeys.keySet().removeAll(mapBatch.keySet());
+                m_cInFlight++;
+                }
+
+            write(mapBatch);
+            }
+        }
+
+    /**
+     * Write the specified batch into the cache.
+     * <p>
+     * The write is tracked by this subscriber, so that unsubscribing from it
+     * also stops processing the outcome of the writes that are in flight.
+     *
+     * @param mapBatch the batch to write
+     */
+    protected void write(Map<K, V> mapBatch)
+        {
+        CompositeSubscription subsBatches = m_subsBatches;
+
+        Subscriber<Void> subscriber = new Subscriber<Void>()
+            {
+            @Override
+            public void onNext(Void v)
+                {
+                }
+
+            @Override
+            public void onCompleted()
+                {
+                subsBatches.remove(this);
+                onBatchWritten(mapBatch);
+                }
+
+            @Override
+            public void onError(Throwable t)
+                {
+                subsBatches.remove(this);
+                terminate(t);
+                }
+            };
+
+        subsBatches.add(subscriber);
+        m_cache.putAll(mapBatch).unsafeSubscribe(subscriber);
+        }
+
+    /**
+     * Called when a batch has been written.
+     *
+     * @param mapBatch the batch that has been written
+     */
+    protected void onBatchWritten(Map<K, V> mapBatch)
+        {
+        if (isUnsubscribed())
+            {
+            return;
+            }
+
+        synchronized (this)
+            {
+            m_cInFlight--;
+            m_setInFlightKeys.removeAll(mapBatch.keySet());
+            }
+
+        request(mapBatch.size());
+        dispatch();
+        checkCompleted();
+        }
+
+    /**
+     * Complete the subscriber if all the entries have been received and
+     * written.
+     */
+    protected void checkCompleted()
+        {
+        synchronized (this)
+            {
+            if (m_fTerminated || !m_fUpstreamDone || m_cInFlight > 0
+                || !m_queueReady.isEmpty() || !m_mapPending.isEmpty())
+                {
+                return;
+                }
+
+            m_fTerminated = true;
+            }
+
+        m_subscriber.onCompleted();
+        unsubscribe();
+        }
+
+    /**
+     * Terminate the subscriber with the specified error.
+     *
+     * @param t the error to terminate the subscriber with
+     */
+    protected void terminate(Throwable t)
+        {
+        synchronized (this)
+            {
+            if (m_fTerminated)
+                {
+                return;
+                }
+
+            m_fTerminated = true;
+            }
+
+        m_subscriber.onError(t);
+        unsubscribe();
+        }
+
+    // ---- data members ----------------------------------------------------
+
+    /**
+     * The cache to write the entries into.
+     */
+    protected final RxNamedCache<K, V> m_cache;
+
+    /**
+     * The subscriber to notify when all the entries have been written.
+     */
+    protected final Subscriber<? super Void> m_subscriber;
+
+    /**
+     * The maximum number of entries in a batch.
+     */
+    protected final int m_cMaxBatch;
+
+    /**
+     * The maximum number of milliseconds to wait for a batch to fill up.
+     */
+    protected final long m_cMaxDelayMillis;
+
+    /**
+     * The maximum number of batches to write concurrently.
+     */
+    protected final int m_cMaxInFlight;
+
+    /**
+     * Flag specifying whether to replace the pending value of a key instead
+     * of writing it.
+     */
+    protected final boolean m_fCoalesce;
+
+    /**
+     * The worker used to schedule the delayed writes.
+     */
+    protected final Scheduler.Worker m_worker;
+
+    /**
+     * The subscriptions to the writes that are in flight.
+     */
+    protected final CompositeSubscription m_subsBatches;
+
+    /**
+     * The batch that is currently being filled up.
+     */
+    protected Map<K, V> m_mapPending = new LinkedHashMap<>();
+
+    /**
+     * The sequence number of the batch that is currently being filled up.
+     */
+    protected long m_nBatch;
+
+    /**
+     * The batches that are ready to be written.
+     */
+    protected final Queue<Map<K, V>> m_queueReady = new ArrayDeque<>();
+
+    /**
+     * The batches that are ready to be written, keyed by the keys they
+     * contain, which is only maintained if coalescing is enabled.
+     */
+    protected final Map<K, Map<K, V>> m_mapQueuedKeys = new HashMap<>();
+
+    /**
+     * The number of batches that are currently being written.
+     */
+    protected int m_cInFlight;
+
+    /**
+     * The keys of the batches that are currently being written.
+     */
+    protected final Set<K> m_setInFlightKeys = new HashSet<>();
+
+    /**
+     * Flag specifying whether the upstream Observable has completed.
+     */
+    protected boolean m_fUpstreamDone;
+
+    /**
+     * Flag specifying whether the subscriber has been notified of completion
+     * or failure.
+     */
+    protected boolean m_fTerminated;
+    }
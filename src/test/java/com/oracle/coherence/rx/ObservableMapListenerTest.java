@@ -30,16 +30,41 @@ import com.tangosol.net.ConfigurableCacheFactory;
 import com.tangosol.net.NamedCache;
 
 import com.tangosol.util.MapEvent;
+import com.tangosol.util.ObservableHashMap;
+import com.tangosol.util.ObservableMap;
+import com.tangosol.util.ValueExtractor;
+
+import com.tangosol.util.extractor.IdentityExtractor;
+
+import com.tangosol.util.filter.GreaterFilter;
+import com.tangosol.util.filter.MapEventFilter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import rx.Subscription;
+
+import rx.observers.TestSubscriber;
+
+import rx.schedulers.Schedulers;
+
+import rx.subjects.PublishSubject;
+
 import org.junit.ClassRule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -103,7 +128,483 @@ public class ObservableMapListenerTest
         latch.await();
         }
 
-    private void assertEvent(MapEvent<Integer, String> expected, MapEvent<Integer, String> actual)
+    @Test
+    public void testObservableMapListenerWithFilter() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        List<MapEvent<Integer, String>> expected = new ArrayList<>(3);
+        expected.add(new MapEvent<>(cache, MapEvent.ENTRY_INSERTED, 2, null, "two"));
+        expected.add(new MapEvent<>(cache, MapEvent.ENTRY_INSERTED, 3, null, "three"));
+        expected.add(new MapEvent<>(cache, MapEvent.ENTRY_UPDATED, 3, "three", "THREE"));
+
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger nIndex = new AtomicInteger(0);
+
+        ObservableMapListener<Integer, String> listener =
+                ObservableMapListener.create(cache, MapEventFilter.E_INSERTED | MapEventFilter.E_UPDATED,
+                                             new GreaterFilter<>(IdentityExtractor.INSTANCE, "one"));
+        listener.subscribe(evt ->
+                           {
+                           latch.countDown();
+                           assertEvent(expected.get(nIndex.getAndIncrement()), evt);
+                           });
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        cache.put(1, "ONE");
+        cache.put(3, "THREE");
+        cache.remove(2);
+
+        latch.await();
+        listener.release();
+        }
+
+    @Test
+    public void testObservableMapListenerWithProjection() throws Exception
+        {
+        NamedCache<Integer, String>     cache  = getNamedCache();
+        ObservableMap<Integer, Integer> source = new ObservableHashMap<>();
+
+        List<MapEvent<Integer, Integer>> expected = new ArrayList<>(3);
+        expected.add(new MapEvent<>(source, MapEvent.ENTRY_INSERTED, 1, null, 3));
+        expected.add(new MapEvent<>(source, MapEvent.ENTRY_UPDATED, 1, 3, 5));
+        expected.add(new MapEvent<>(source, MapEvent.ENTRY_DELETED, 1, 5, null));
+
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger nIndex = new AtomicInteger(0);
+
+        ObservableMapListener<Integer, Integer> listener =
+                ObservableMapListener.createProjection(cache, null, String::length);
+        listener.subscribe(evt ->
+                           {
+                           latch.countDown();
+                           assertEvent(expected.get(nIndex.getAndIncrement()), evt);
+                           });
+
+        cache.put(1, "one");
+        cache.put(1, "three");
+        cache.remove(1);
+
+        latch.await();
+        listener.release();
+        }
+
+    @Test
+    public void testObservableMapListenerWithLiteEvents() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Integer>  keys  = new CopyOnWriteArrayList<>();
+
+        ObservableMapListener<Integer, String> listener =
+                ObservableMapListener.create(cache, MapEventFilter.E_INSERTED, null, true);
+        listener.subscribe(evt ->
+                           {
+                           keys.add(evt.getKey());
+                           latch.countDown();
+                           });
+
+        cache.put(1, "one");
+        cache.put(1, "ONE");
+        cache.put(2, "two");
+
+        latch.await();
+        listener.release();
+
+        assertEquals(Arrays.asList(1, 2), keys);
+        }
+
+    @Test
+    public void testObservableMapListenerWithAsyncDispatch() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        CountDownLatch latchFast = new CountDownLatch(5);
+        CountDownLatch latchSlow = new CountDownLatch(1);
+        List<Integer>  keysSlow  = new CopyOnWriteArrayList<>();
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create();
+        AsyncDispatcher<Integer, String>       async    = listener.async(2, AsyncDispatcher.Overflow.DROP_NEWEST);
+
+        async.subscribe(evt ->
+                        {
+                        try
+                            {
+                            latchSlow.await(10L, TimeUnit.SECONDS);
+                            }
+                        catch (InterruptedException e)
+                            {
+                            throw new RuntimeException(e);
+                            }
+                        keysSlow.add(evt.getKey());
+                        });
+        async.subscribe(evt -> latchFast.countDown());
+
+        cache.addMapListener(listener);
+
+        for (int i = 1; i <= 5; i++)
+            {
+            cache.put(i, String.valueOf(i));
+            }
+
+        // the slow subscriber must not hold up the fast one
+        assertTrue(latchFast.await(10L, TimeUnit.SECONDS));
+        latchSlow.countDown();
+
+        long ldtDeadline = System.currentTimeMillis() + 10000L;
+        while (keysSlow.size() + async.getDroppedCount() < 5 && System.currentTimeMillis() < ldtDeadline)
+            {
+            Thread.sleep(10L);
+            }
+
+        cache.removeMapListener(listener);
+
+        assertEquals(5, keysSlow.size() + async.getDroppedCount());
+        assertEquals(keysSlow.stream().sorted().collect(Collectors.toList()), keysSlow);
+        assertTrue(async.getDroppedCount() > 0);
+        }
+
+    @Test
+    public void testObservableMapListenerWithIndexedSubscribers() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        CountDownLatch latch       = new CountDownLatch(6);
+        List<Integer>  keysForKey  = new CopyOnWriteArrayList<>();
+        List<Integer>  keysForAttr = new CopyOnWriteArrayList<>();
+
+        ValueExtractor<String, Integer> length = String::length;
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create();
+        listener.forKey(2).subscribe(evt ->
+                                     {
+                                     keysForKey.add(evt.getKey());
+                                     latch.countDown();
+                                     });
+        listener.forAttribute(length, 3).subscribe(evt ->
+                                                   {
+                                                   keysForAttr.add(evt.getKey());
+                                                   latch.countDown();
+                                                   });
+
+        cache.addMapListener(listener);
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        cache.put(3, "six");
+        cache.put(2, "seven");
+
+        latch.await();
+        cache.removeMapListener(listener);
+
+        assertEquals(Arrays.asList(2, 2), keysForKey);
+        assertEquals(Arrays.asList(1, 2, 3, 2), keysForAttr);
+        }
+
+    @Test
+    public void testObservableMapListenerWithFailingExtractor() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        ValueExtractor<String, Integer> length  = String::length;
+        ValueExtractor<String, Integer> partial = value ->
+            {
+            if ("one".equals(value))
+                {
+                throw new IllegalStateException(value);
+                }
+            return value.length();
+            };
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create();
+
+        TestSubscriber<MapEvent<Integer, String>> subscriberPartial = new TestSubscriber<>();
+        TestSubscriber<MapEvent<Integer, String>> subscriberLength  = new TestSubscriber<>();
+        listener.forAttribute(partial, 3).subscribe(subscriberPartial);
+        listener.forAttribute(length, 3).subscribe(subscriberLength);
+
+        cache.addMapListener(listener);
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        subscriberLength.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        subscriberPartial.awaitValueCount(1, 10, TimeUnit.SECONDS);
+        cache.removeMapListener(listener);
+
+        // only the event the extractor failed for is skipped
+        subscriberLength.assertValueCount(2);
+        subscriberPartial.assertNoErrors();
+        subscriberPartial.assertValueCount(1);
+        assertEquals(Integer.valueOf(2), subscriberPartial.getOnNextEvents().get(0).getKey());
+
+        subscriberPartial.unsubscribe();
+        subscriberLength.unsubscribe();
+        assertTrue(listener.m_mapAttributeIndex.isEmpty());
+        }
+
+    @Test
+    public void testObservableMapListenerWithPartitionedDispatch() throws Exception
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        CountDownLatch              latch   = new CountDownLatch(80);
+        Map<Integer, List<Integer>> mapSeen = new ConcurrentHashMap<>();
+
+        ObservableMapListener<Integer, Integer> listener = ObservableMapListener.create();
+
+        PartitionedDispatcher<Integer, Integer> dispatcher = listener.partitioned(4, 16);
+        dispatcher.subscribe(evt ->
+                             {
+                             mapSeen.computeIfAbsent(evt.getKey(), k -> new CopyOnWriteArrayList<>())
+                                     .add(evt.getNewValue());
+                             latch.countDown();
+                             });
+
+        cache.addMapListener(listener);
+
+        for (int i = 0; i < 10; i++)
+            {
+            for (int nKey = 0; nKey < 8; nKey++)
+                {
+                cache.put(nKey, i);
+                }
+            }
+
+        latch.await();
+        cache.removeMapListener(listener);
+        dispatcher.unsubscribe();
+
+        List<Integer> listExpected = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        for (int nKey = 0; nKey < 8; nKey++)
+            {
+            assertEquals(listExpected, mapSeen.get(nKey));
+            }
+        assertEquals(4, dispatcher.getLaneCount());
+        assertEquals(0, dispatcher.getLag(dispatcher.getLane(0)));
+        }
+
+    @Test
+    public void testPartitionedDispatcherPropagatesErrors()
+        {
+        PublishSubject<MapEvent<Integer, Integer>> source = PublishSubject.create();
+
+        PartitionedDispatcher<Integer, Integer> dispatcher =
+                new PartitionedDispatcher<>(source, 2, 16, AsyncDispatcher.Overflow.BLOCK, Schedulers.computation());
+
+        List<TestSubscriber<MapEvent<Integer, Integer>>> listSubscribers = new ArrayList<>();
+        for (int i = 0; i < dispatcher.getLaneCount(); i++)
+            {
+            TestSubscriber<MapEvent<Integer, Integer>> subscriber = new TestSubscriber<>();
+            dispatcher.lane(i).subscribe(subscriber);
+            listSubscribers.add(subscriber);
+            }
+
+        source.onError(new IllegalStateException());
+
+        for (TestSubscriber<MapEvent<Integer, Integer>> subscriber : listSubscribers)
+            {
+            subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+            subscriber.assertError(IllegalStateException.class);
+            }
+        }
+
+    @Test
+    public void testPartitionedDispatcherSubscribesOnDemand() throws Exception
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        ObservableMapListener<Integer, Integer> listener   = ObservableMapListener.create(cache);
+        PartitionedDispatcher<Integer, Integer> dispatcher = listener.partitioned(4, 16);
+
+        // the listener is not registered until the lanes are subscribed to
+        assertEquals(0, listener.m_cSubscribers);
+
+        CountDownLatch latch = new CountDownLatch(8);
+        dispatcher.subscribe(evt -> latch.countDown(), Throwable::printStackTrace);
+        assertEquals(1, listener.m_cSubscribers);
+
+        for (int nKey = 0; nKey < 8; nKey++)
+            {
+            cache.put(nKey, nKey);
+            }
+
+        assertTrue(latch.await(10L, TimeUnit.SECONDS));
+
+        dispatcher.unsubscribe();
+        assertEquals(0, listener.m_cSubscribers);
+        }
+
+    @Test
+    public void testObservableMapListenerWithConflation() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        CountDownLatch                  latchStarted = new CountDownLatch(1);
+        CountDownLatch                  latchResume  = new CountDownLatch(1);
+        CountDownLatch                  latch        = new CountDownLatch(2);
+        List<MapEvent<Integer, String>> events       = new CopyOnWriteArrayList<>();
+
+        ObservableMapListener<Integer, String> listener  = ObservableMapListener.create();
+        AsyncDispatcher<Integer, String>       conflated = listener.conflated();
+
+        conflated.subscribe(evt ->
+                            {
+                            events.add(evt);
+                            latchStarted.countDown();
+                            try
+                                {
+                                latchResume.await();
+                                }
+                            catch (InterruptedException e)
+                                {
+                                throw new RuntimeException(e);
+                                }
+                            latch.countDown();
+                            });
+
+        cache.addMapListener(listener);
+
+        cache.put(0, "zero");
+        latchStarted.await();
+
+        // queued while the subscriber is busy
+        cache.put(2, "two");
+        cache.remove(2);
+        cache.put(1, "one");
+        cache.put(1, "ONE");
+        cache.put(1, "One");
+
+        long ldtDeadline = System.currentTimeMillis() + 10000L;
+        while (conflated.getDroppedCount() < 4 && System.currentTimeMillis() < ldtDeadline)
+            {
+            Thread.sleep(10L);
+            }
+
+        // both the insert and the delete of key 2 are dropped
+        assertEquals(4, conflated.getDroppedCount());
+        assertEquals(1, conflated.getLag());
+        latchResume.countDown();
+        latch.await();
+        cache.removeMapListener(listener);
+
+        assertEquals(2, events.size());
+        assertEvent(new MapEvent<>(cache, MapEvent.ENTRY_INSERTED, 1, null, "One"), events.get(1));
+        }
+
+    @Test
+    public void testObservableMapListenerWithBatches() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        CountDownLatch latch = new CountDownLatch(7);
+        List<Integer>  sizes = new CopyOnWriteArrayList<>();
+        List<Integer>  keys  = new CopyOnWriteArrayList<>();
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create();
+        listener.batched(3, 500L).subscribe(list ->
+                                            {
+                                            sizes.add(list.size());
+                                            list.forEach(evt ->
+                                                         {
+                                                         keys.add(evt.getKey());
+                                                         latch.countDown();
+                                                         });
+                                            });
+
+        cache.addMapListener(listener);
+
+        for (int i = 0; i < 7; i++)
+            {
+            cache.put(i, String.valueOf(i));
+            }
+
+        latch.await();
+        cache.removeMapListener(listener);
+
+        // two full batches, and the last event once the delay has elapsed
+        assertEquals(Arrays.asList(3, 3, 1), sizes);
+        assertEquals(IntStream.range(0, 7).boxed().collect(Collectors.toList()), keys);
+        }
+
+    @Test
+    public void testObservableMapListenerWithRequestedBatches() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create();
+
+        TestSubscriber<List<MapEvent<Integer, String>>> subscriber = new TestSubscriber<>(1L);
+        listener.batched(2, 10000L).subscribe(subscriber);
+
+        cache.addMapListener(listener);
+
+        for (int i = 0; i < 4; i++)
+            {
+            cache.put(i, String.valueOf(i));
+            }
+
+        // the second batch is queued until it is requested
+        subscriber.awaitValueCount(1, 10, TimeUnit.SECONDS);
+        subscriber.assertValueCount(1);
+
+        subscriber.requestMore(1L);
+        subscriber.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        cache.removeMapListener(listener);
+
+        subscriber.assertValueCount(2);
+        assertEquals(Integer.valueOf(1), subscriber.getOnNextEvents().get(0).get(1).getKey());
+        assertEquals(Integer.valueOf(3), subscriber.getOnNextEvents().get(1).get(1).getKey());
+        }
+
+    @Test
+    public void testObservableMapListenerRegistersWhileSubscribed() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        ObservableMapListener<Integer, String> listener = ObservableMapListener.create(cache);
+
+        // not registered until the first subscriber arrives
+        cache.put(1, "one");
+
+        CountDownLatch latchFirst = new CountDownLatch(1);
+        List<Integer>  keysFirst  = new CopyOnWriteArrayList<>();
+        Subscription   first      = listener.subscribe(evt ->
+                                                       {
+                                                       keysFirst.add(evt.getKey());
+                                                       latchFirst.countDown();
+                                                       });
+        Subscription   indexed    = listener.forKey(2).subscribe();
+
+        cache.put(2, "two");
+        latchFirst.await();
+
+        first.unsubscribe();
+        assertEquals(1, listener.m_cSubscribers);
+        indexed.unsubscribe();
+        assertEquals(0, listener.m_cSubscribers);
+
+        // registered again for the next subscriber
+        CountDownLatch latchSecond = new CountDownLatch(1);
+        List<Integer>  keysSecond  = new CopyOnWriteArrayList<>();
+        Subscription   second      = listener.subscribe(evt ->
+                                                        {
+                                                        keysSecond.add(evt.getKey());
+                                                        latchSecond.countDown();
+                                                        });
+
+        cache.put(3, "three");
+        latchSecond.await();
+        second.unsubscribe();
+
+        assertEquals(Arrays.asList(2), keysFirst);
+        assertEquals(Arrays.asList(3), keysSecond);
+        }
+
+    private <V> void assertEvent(MapEvent<Integer, V> expected, MapEvent<Integer, V> actual)
         {
         assertEquals(expected.getId(), actual.getId());
         assertEquals(expected.getKey(), actual.getKey());
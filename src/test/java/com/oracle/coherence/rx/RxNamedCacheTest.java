@@ -28,8 +28,11 @@ import com.oracle.bedrock.runtime.java.options.SystemProperty;
 
 import com.tangosol.net.ConfigurableCacheFactory;
 import com.tangosol.net.NamedCache;
+import com.tangosol.net.PartitionedService;
 
+import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
+import com.tangosol.util.MapEvent;
 import com.tangosol.util.ValueExtractor;
 
 import com.tangosol.util.aggregator.LongSum;
@@ -38,14 +41,42 @@ import com.tangosol.util.extractor.IdentityExtractor;
 
 import com.tangosol.util.filter.AlwaysFilter;
 import com.tangosol.util.filter.GreaterFilter;
+import com.tangosol.util.filter.LessFilter;
+import com.tangosol.util.filter.PartitionedFilter;
 
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import rx.Observable;
+
+import rx.observers.TestSubscriber;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import java.util.stream.Collectors;
+
+import static com.oracle.coherence.rx.RxNamedCache.GetBatching;
+import static com.oracle.coherence.rx.RxNamedCache.KeyBatching;
+import static com.oracle.coherence.rx.RxNamedCache.NearCaching;
+import static com.oracle.coherence.rx.RxNamedCache.NegativeCaching;
+import static com.oracle.coherence.rx.RxNamedCache.PartitionPaging;
+import static com.oracle.coherence.rx.RxNamedCache.SingleFlight;
 import static com.oracle.coherence.rx.RxNamedCache.rx;
 
 import static org.junit.Assert.*;
@@ -72,6 +103,17 @@ public class RxNamedCacheTest
     protected static final GreaterFilter GREATER_THAN_1 = new GreaterFilter<>(IdentityExtractor.INSTANCE, 1);
     protected static final GreaterFilter GREATER_THAN_2 = new GreaterFilter<>(IdentityExtractor.INSTANCE, 2);
 
+    protected static <T> void assertEventually(T expected, Supplier<T> supplier) throws InterruptedException
+        {
+        long ldtDeadline = System.currentTimeMillis() + 10000L;
+        while (!Objects.equals(expected, supplier.get()) && System.currentTimeMillis() < ldtDeadline)
+            {
+            Thread.sleep(50L);
+            }
+
+        assertEquals(expected, supplier.get());
+        }
+
     protected <K, V> NamedCache<K, V> getNamedCache()
         {
         ConfigurableCacheFactory cacheFactory = ORCHESTRATION.getSessionFor(MEMBER);
@@ -93,6 +135,222 @@ public class RxNamedCacheTest
         assertEquals(null, rx(cache).get(2).toBlocking().single());
         }
 
+    @Test
+    public void testGetWithSingleFlight()
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, SingleFlight.enabled());
+
+        cache.put(1, "one");
+
+        assertEquals(Arrays.asList("one", "one", "one"),
+                     Observable.merge(rxCache.get(1), rxCache.get(1), rxCache.get(1))
+                             .toList()
+                             .toBlocking()
+                             .single());
+
+        cache.put(1, "uno");
+
+        assertEquals("uno", rxCache.get(1).toBlocking().single());
+        assertEquals(null, rxCache.get(2).toBlocking().single());
+        }
+
+    @Test
+    public void testGetWithGetBatching()
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, GetBatching.of(2, 10));
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        assertEquals(Arrays.asList("one", "two", "three", null),
+                     Observable.concatEager(rxCache.get(1), rxCache.get(2), rxCache.get(3), rxCache.get(4))
+                             .toList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testGetWithGetBatchingFailsUnmatchedKeys()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        RxNamedCache<Integer, String> rxCache = new RxNamedCacheImpl<Integer, String>(cache.async(), GetBatching.of(2, 10))
+            {
+            @Override
+            protected <R> Observable<? extends Map.Entry<? extends Integer, ? extends R>>
+            readAll(Collection<? extends Integer> collKeys, InvocableMap.EntryProcessor<Integer, String, R> processor)
+                {
+                return super.readAll(collKeys, processor)
+                        .map(entry -> new AbstractMap.SimpleEntry<>(entry.getKey() + 100, entry.getValue()));
+                }
+            };
+
+        cache.put(1, "one");
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        rxCache.get(1).subscribe(subscriber);
+
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertError(IllegalStateException.class);
+        }
+
+    @Test
+    public void testGetWithNearCaching() throws Exception
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NearCaching.of(100));
+
+        cache.put(1, "one");
+
+        assertEquals("one", rxCache.get(1).toBlocking().single());
+        assertEquals("one", rxCache.get(1).toBlocking().single());
+
+        rxCache.put(1, "uno").toBlocking().singleOrDefault(null);
+        assertEquals("uno", rxCache.get(1).toBlocking().single());
+
+        cache.put(1, "eins");
+        assertEventually("eins", () -> rxCache.get(1).toBlocking().single());
+        }
+
+    @Test
+    public void testGetWithNearCachingObservesWrites()
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NearCaching.of(100));
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        assertEquals("one", rxCache.get(1).toBlocking().single());
+        rxCache.replace(1, "uno").toBlocking().single();
+        assertEquals("uno", rxCache.get(1).toBlocking().single());
+
+        rxCache.merge(1, "!", (v1, v2) -> v1 + v2).toBlocking().single();
+        assertEquals("uno!", rxCache.get(1).toBlocking().single());
+
+        rxCache.remove(1, "uno!").toBlocking().single();
+        assertNull(rxCache.get(1).toBlocking().single());
+
+        assertEquals("two", rxCache.get(2).toBlocking().single());
+        rxCache.replaceAll(AlwaysFilter.INSTANCE, (k, v) -> v.toUpperCase()).toBlocking().singleOrDefault(null);
+        assertEquals("TWO", rxCache.get(2).toBlocking().single());
+
+        rxCache.clear().toBlocking().singleOrDefault(null);
+        assertNull(rxCache.get(2).toBlocking().single());
+
+        rxCache.release();
+        }
+
+    @Test
+    public void testGetWithNearCachingHonorsExpiry() throws Exception
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NearCaching.of(100));
+
+        rxCache.put(1, "one", 500L).toBlocking().singleOrDefault(null);
+        rxCache.put(2, "two").toBlocking().singleOrDefault(null);
+
+        assertEquals("two", rxCache.get(2).toBlocking().single());
+        rxCache.get(1).toBlocking().single();
+
+        assertEventually(null, () -> rxCache.get(1).toBlocking().single());
+        assertEquals("two", rxCache.get(2).toBlocking().single());
+
+        rxCache.release();
+        }
+
+    @Test
+    public void testGetWithNearCachingExpiresLocally() throws Exception
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+        FrontCache<Integer, String> front = new FrontCache<>(cache, 100, 0);
+        AtomicInteger               cLoad = new AtomicInteger();
+
+        // the loader reports an entry that expires in the cluster, but the
+        // cluster itself never changes, so no event will invalidate the value
+        Function<Integer, Observable<ExpiringValue<String>>> loader = key ->
+                Observable.fromCallable(() ->
+                        {
+                        cLoad.incrementAndGet();
+                        return new ExpiringValue<>("one", 2000L);
+                        });
+
+        assertEquals("one", front.get(1, loader).toBlocking().single());
+        assertEquals("one", front.get(1, loader).toBlocking().single());
+        assertEquals(1, cLoad.get());
+
+        assertEventually(true, () ->
+                {
+                front.get(1, loader).toBlocking().single();
+                return cLoad.get() > 1;
+                });
+
+        front.release();
+        }
+
+    @Test
+    public void testGetWithNegativeCaching() throws Exception
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NegativeCaching.of(100));
+
+        assertEquals(null, rxCache.get(1).toBlocking().single());
+        assertEquals(false, rxCache.containsKey(1).toBlocking().single());
+        assertEquals(false, rxCache.containsKey(2).toBlocking().single());
+        assertEquals(null, rxCache.get(2).toBlocking().single());
+
+        cache.put(1, "one");
+        assertEventually("one", () -> rxCache.get(1).toBlocking().single());
+
+        rxCache.put(2, "two").toBlocking().singleOrDefault(null);
+        assertEquals(true, rxCache.containsKey(2).toBlocking().single());
+        }
+
+    @Test
+    public void testContainsKeyWithNegativeCachingObservesWrites()
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NegativeCaching.of(100));
+
+        assertEquals(false, rxCache.containsKey(1).toBlocking().single());
+        rxCache.putIfAbsent(1, "one").toBlocking().single();
+        assertEquals(true, rxCache.containsKey(1).toBlocking().single());
+
+        assertEquals(null, rxCache.get(2).toBlocking().single());
+        rxCache.computeIfAbsent(2, k -> "two").toBlocking().single();
+        assertEquals("two", rxCache.get(2).toBlocking().single());
+
+        rxCache.release();
+        }
+
+    @Test
+    public void testGetWithNearCachingRelease() throws Exception
+        {
+        NamedCache<Integer, String>   cache   = getNamedCache();
+        RxNamedCache<Integer, String> rxCache = rx(cache, NearCaching.of(100), NegativeCaching.of(100));
+        FrontCache<Integer, String>   front   = ((RxNamedCacheImpl<Integer, String>) rxCache).m_front;
+
+        cache.put(1, "one");
+
+        assertEquals("one", rxCache.get(1).toBlocking().single());
+        assertEquals(1, front.m_listener.m_cSubscribers);
+
+        rxCache.get(2).subscribe().unsubscribe();
+        assertEventually(0, () -> front.m_mapLoading.size());
+
+        rxCache.release();
+        assertEquals(0, front.m_listener.m_cSubscribers);
+
+        cache.put(1, "uno");
+        assertEquals("uno", rxCache.get(1).toBlocking().single());
+
+        // nothing is cached any more, so the next change is visible at once
+        cache.put(1, "dos");
+        assertEquals("dos", rxCache.get(1).toBlocking().single());
+        }
 
     @Test
     public void testGetAll()
@@ -138,6 +396,72 @@ public class RxNamedCacheTest
         assertEquals("three", cache.get(3));
         }
 
+    @Test
+    public void testPutAllWithObservable()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        Observable<Map.Entry<Integer, Integer>> entries =
+                Observable.range(1, 100).map(i -> new AbstractMap.SimpleEntry<>(i, i * i));
+
+        rx(cache).putAll(entries, 10, 50, 2).toBlocking().singleOrDefault(null);
+
+        assertEquals(100, cache.size());
+        assertEquals(Integer.valueOf(2500), cache.get(50));
+
+        rx(cache).putAll(Observable.just(new AbstractMap.SimpleEntry<>(1, 10),
+                                         new AbstractMap.SimpleEntry<>(1, 20)), 10, 50, 1)
+                .toBlocking().singleOrDefault(null);
+
+        assertEquals(Integer.valueOf(20), cache.get(1));
+        }
+
+    @Test
+    public void testPutAllWithObservableAppliesUpdatesInOrder()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        Observable<Map.Entry<Integer, Integer>> entries =
+                Observable.range(1, 1000).map(i -> new AbstractMap.SimpleEntry<>(i % 3 == 0 ? 0 : i, i));
+
+        rx(cache).putAll(entries, 5, 10, 4).toBlocking().singleOrDefault(null);
+
+        assertEquals(667, cache.size());
+        assertEquals(Integer.valueOf(999), cache.get(0));
+        }
+
+    @Test
+    public void testPutAllWithObservableCoalescesUpdates()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        Observable<Map.Entry<Integer, Integer>> entries =
+                Observable.range(1, 1000).map(i -> new AbstractMap.SimpleEntry<>(i % 10, i));
+
+        rx(cache).putAll(entries, 100, 50, 1, true).toBlocking().singleOrDefault(null);
+
+        assertEquals(10, cache.size());
+        assertEquals(Integer.valueOf(1000), cache.get(0));
+        assertEquals(Integer.valueOf(991), cache.get(1));
+        }
+
+    @Test
+    public void testPutAllWithObservableCoalescesUpdatesAcrossBatches()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        Observable<Map.Entry<Integer, Integer>> entries =
+                Observable.range(1, 1000).map(i -> new AbstractMap.SimpleEntry<>(i % 20, i));
+
+        rx(cache).putAll(entries, 10, 1, 4, true).toBlocking().singleOrDefault(null);
+
+        assertEquals(20, cache.size());
+        for (int i = 0; i < 20; i++)
+            {
+            assertEquals(Integer.valueOf(980 + (i == 0 ? 20 : i)), cache.get(i));
+            }
+        }
+
     @Test
     public void testRemove()
         {
@@ -196,6 +520,61 @@ public class RxNamedCacheTest
                              .single());
         }
 
+    @Test
+    public void testKeySetWithFilter()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+
+        assertEquals(Arrays.asList(2, 3),
+                     rx(cache).keySet(GREATER_THAN_1)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+
+        assertEquals(Arrays.asList(2, 3),
+                     rx(cache, PartitionPaging.single()).keySet(GREATER_THAN_1)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testKeySetWithFilterPagesByDefault()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 1000; i++)
+            {
+            cache.put(i, i);
+            }
+
+        List<Filter> listFilters = Collections.synchronizedList(new ArrayList<>());
+
+        RxNamedCache<Integer, Integer> rxCache = new RxNamedCacheImpl<Integer, Integer>(cache.async())
+            {
+            @Override
+            public <R> Observable<R> aggregate(Filter filter,
+                                               InvocableMap.EntryAggregator<? super Integer, ? super Integer, R> aggregator)
+                {
+                listFilters.add(filter);
+                return super.aggregate(filter, aggregator);
+                }
+            };
+
+        assertEquals(999, rxCache.keySet(GREATER_THAN_1).count().toBlocking().single().intValue());
+
+        int cPartitions = ((PartitionedService) cache.getCacheService()).getPartitionCount();
+        int cPages      = (cPartitions + RxNamedCacheImpl.KEY_SET_PAGE_PARTITIONS - 1)
+                          / RxNamedCacheImpl.KEY_SET_PAGE_PARTITIONS;
+
+        assertEquals(cPages, listFilters.size());
+        assertTrue(listFilters.stream().allMatch(filter -> filter instanceof PartitionedFilter));
+        }
+
     @Test
     public void testEntrySet()
         {
@@ -213,6 +592,148 @@ public class RxNamedCacheTest
                              .single());
         }
 
+    @Test
+    public void testEntrySetWithComparatorAndLimit()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 10; i++)
+            {
+            cache.put(i, i);
+            }
+
+        assertEquals(Arrays.asList(10, 9, 8),
+                     rx(cache).entrySet(AlwaysFilter.INSTANCE, Collections.reverseOrder(), 3)
+                             .map(Map.Entry::getKey)
+                             .toList()
+                             .toBlocking()
+                             .single());
+
+        assertEquals(Arrays.asList(2, 3),
+                     rx(cache).entrySet(GREATER_THAN_1, null, 2)
+                             .map(Map.Entry::getKey)
+                             .toList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testEntrySetWithComparator()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 10; i++)
+            {
+            cache.put(i, i);
+            }
+
+        assertEquals(Arrays.asList(10, 9, 8, 7, 6, 5, 4, 3, 2, 1),
+                     rx(cache, PartitionPaging.of(8)).entrySet(AlwaysFilter.INSTANCE, Collections.reverseOrder())
+                             .map(Map.Entry::getKey)
+                             .toList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testSortedMergeRetrievesRunsInChunks()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 20; i++)
+            {
+            cache.put(i, i % 2 == 0 ? i : -i);
+            }
+
+        List<Filter> listFilters = Arrays.asList(new GreaterFilter(IdentityExtractor.INSTANCE, 0),
+                                                 new LessFilter(IdentityExtractor.INSTANCE, 0));
+
+        assertEquals(Arrays.asList(-19, -17, -15, -13, -11, -9, -7, -5, -3, -1, 2, 4, 6, 8, 10, 12, 14, 16, 18, 20),
+                     SortedMerge.observe(RxNamedCache.<Integer, Integer>rx(cache), listFilters, null, 3)
+                             .map(Map.Entry::getValue)
+                             .toList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testEntrySetWithComparatorScansEachPartitionOnce()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 3000; i++)
+            {
+            cache.put(i, -i);
+            }
+
+        List<Filter> listFilters = Collections.synchronizedList(new ArrayList<>());
+
+        RxNamedCache<Integer, Integer> rxCache = new RxNamedCacheImpl<Integer, Integer>(cache.async())
+            {
+            @Override
+            public <R> Observable<R> aggregate(Filter filter,
+                                               InvocableMap.EntryAggregator<? super Integer, ? super Integer, R> aggregator)
+                {
+                listFilters.add(filter);
+                return super.aggregate(filter, aggregator);
+                }
+            };
+
+        List<Integer> listKeys = rxCache.entrySet(AlwaysFilter.INSTANCE, (Comparator<Integer>) null)
+                .map(Map.Entry::getKey)
+                .toList()
+                .toBlocking()
+                .single();
+
+        assertEquals(3000, listKeys.size());
+        assertEquals(Integer.valueOf(3000), listKeys.get(0));
+        assertEquals(Integer.valueOf(1), listKeys.get(2999));
+
+        int cPartitions = ((PartitionedService) cache.getCacheService()).getPartitionCount();
+        assertEquals(cPartitions, listFilters.size());
+        assertTrue(listFilters.stream().allMatch(filter -> filter instanceof PartitionedFilter));
+        }
+
+    @Test
+    public void testEntrySetWithComparatorGrowsChunksOfLargeRuns()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 1; i <= 5000; i++)
+            {
+            map.put(i, -i);
+            }
+        cache.putAll(map);
+
+        List<Filter> listFilters = Collections.synchronizedList(new ArrayList<>());
+
+        RxNamedCache<Integer, Integer> rxCache = new RxNamedCacheImpl<Integer, Integer>(cache.async(),
+                                                                                       PartitionPaging.of(10000))
+            {
+            @Override
+            public <R> Observable<R> aggregate(Filter filter,
+                                               InvocableMap.EntryAggregator<? super Integer, ? super Integer, R> aggregator)
+                {
+                listFilters.add(filter);
+                return super.aggregate(filter, aggregator);
+                }
+            };
+
+        List<Integer> listKeys = rxCache.entrySet(AlwaysFilter.INSTANCE, (Comparator<Integer>) null)
+                .map(Map.Entry::getKey)
+                .toList()
+                .toBlocking()
+                .single();
+
+        assertEquals(5000, listKeys.size());
+        assertEquals(Integer.valueOf(5000), listKeys.get(0));
+        assertEquals(Integer.valueOf(1), listKeys.get(4999));
+
+        // chunks of 1024, 2048 and 4096 entries, rather than five of 1024
+        assertEquals(3, listFilters.size());
+        }
+
     @Test
     public void testValues()
         {
@@ -229,6 +750,81 @@ public class RxNamedCacheTest
                              .single());
         }
 
+    @Test
+    public void testEntrySetWithPartitionPaging()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        assertEquals(Arrays.asList("three", "two"),
+                     rx(cache, PartitionPaging.single()).entrySet(GREATER_THAN_1)
+                             .map(Map.Entry::getValue)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testValuesWithPartitionPagingHonorsBackpressure()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>(1);
+        rx(cache, PartitionPaging.of(4)).values().subscribe(subscriber);
+
+        subscriber.awaitValueCount(1, 10, TimeUnit.SECONDS);
+        subscriber.assertValueCount(1);
+        subscriber.assertNotCompleted();
+
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertValueCount(3);
+        subscriber.assertCompleted();
+        }
+
+    @Test
+    public void testEntrySetWithExtractor()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        Map<Integer, Integer> map = rx(cache).entrySet(AlwaysFilter.INSTANCE, String::length)
+                .<Integer, Integer>toMap(Map.Entry::getKey, Map.Entry::getValue)
+                .toBlocking()
+                .single();
+
+        assertEquals(3, map.size());
+        assertEquals(3, (int) map.get(1));
+        assertEquals(3, (int) map.get(2));
+        assertEquals(5, (int) map.get(3));
+        }
+
+    @Test
+    public void testValuesWithExtractor()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        assertEquals(Arrays.asList(3, 3, 5),
+                     rx(cache).values(AlwaysFilter.INSTANCE, String::length)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+        }
+
     @Test
     public void testInvoke()
         {
@@ -273,6 +869,41 @@ public class RxNamedCacheTest
                              .single());
         }
 
+    @Test
+    public void testInvokeAllWithKeyBatching()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 5; i++)
+            {
+            cache.put(i, i);
+            }
+
+        assertEquals(Arrays.asList(1, 4, 9, 16, 25),
+                     rx(cache, KeyBatching.of(2, 2)).invokeAll(Arrays.asList(1, 2, 3, 4, 5), square())
+                             .map(Map.Entry::getValue)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+        }
+
+    @Test
+    public void testGetAllWithOwnerBatching()
+        {
+        NamedCache<Integer, String> cache = getNamedCache();
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        assertEquals(Arrays.asList("one", "two"),
+                     rx(cache, KeyBatching.byOwner()).getAll(Arrays.asList(1, 2, 5))
+                             .map(Map.Entry::getValue)
+                             .toSortedList()
+                             .toBlocking()
+                             .single());
+        }
+
     @Test
     public void testInvokeAllWithFilter()
         {
@@ -290,6 +921,24 @@ public class RxNamedCacheTest
                              .single());
         }
 
+    @Test
+    public void testInvokeAllWithPartitionPagingStopsOnUnsubscribe()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        for (int i = 1; i <= 100; i++)
+            {
+            cache.put(i, i);
+            }
+
+        rx(cache, PartitionPaging.single()).invokeAll(negate())
+                .take(1)
+                .toBlocking()
+                .single();
+
+        assertTrue(cache.values().stream().filter(n -> n < 0).count() < 100);
+        }
+
     @Test
     public void testAggregate()
         {
@@ -539,10 +1188,86 @@ public class RxNamedCacheTest
         assertEquals(9, (int) cache.get("3"));
         }
 
+    // ---- ObservableMap methods -------------------------------------------
+
+    @Test
+    public void testObserveWithFilter()
+        {
+        NamedCache<Integer, Integer> cache = getNamedCache();
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+
+        TestSubscriber<MapEvent<Integer, Integer>> subscriber = new TestSubscriber<>();
+        rx(cache).observe(GREATER_THAN_1).subscribe(subscriber);
+
+        subscriber.awaitValueCount(2, 10, TimeUnit.SECONDS);
+
+        cache.put(4, 4);
+        cache.put(0, 0);
+        cache.put(3, -3);
+
+        subscriber.awaitValueCount(4, 10, TimeUnit.SECONDS);
+        subscriber.unsubscribe();
+
+        List<MapEvent<Integer, Integer>> listEvents = subscriber.getOnNextEvents();
+
+        assertEquals(Arrays.asList(2, 3),
+                     Arrays.asList(listEvents.get(0).getKey(), listEvents.get(1).getKey()).stream().sorted()
+                             .collect(Collectors.toList()));
+        assertEquals(MapEvent.ENTRY_INSERTED, listEvents.get(2).getId());
+        assertEquals(Integer.valueOf(4), listEvents.get(2).getKey());
+        assertEquals(MapEvent.ENTRY_DELETED, listEvents.get(3).getId());
+        assertEquals(Integer.valueOf(3), listEvents.get(3).getKey());
+        }
+
+    @Test
+    public void testObserveKey()
+        {
+        NamedCache<Integer, Integer>   cache   = getNamedCache();
+        RxNamedCache<Integer, Integer> rxCache = rx(cache);
+
+        TestSubscriber<MapEvent<Integer, Integer>> subscriber1 = new TestSubscriber<>();
+        TestSubscriber<MapEvent<Integer, Integer>> subscriber2 = new TestSubscriber<>();
+        TestSubscriber<MapEvent<Integer, Integer>> subscriber3 = new TestSubscriber<>();
+        rxCache.observeKey(1).subscribe(subscriber1);
+        rxCache.observeKey(2).subscribe(subscriber2);
+        rxCache.observeKey(2).subscribe(subscriber3);
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.put(1, -1);
+        cache.remove(2);
+
+        subscriber1.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        subscriber2.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        subscriber3.awaitValueCount(2, 10, TimeUnit.SECONDS);
+        subscriber1.unsubscribe();
+        subscriber2.unsubscribe();
+        subscriber3.unsubscribe();
+
+        assertEquals(Arrays.asList(1, -1), subscriber1.getOnNextEvents().stream()
+                .map(MapEvent::getNewValue).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(MapEvent.ENTRY_INSERTED, MapEvent.ENTRY_DELETED),
+                     subscriber2.getOnNextEvents().stream().map(MapEvent::getId).collect(Collectors.toList()));
+        assertEquals(subscriber2.getOnNextEvents().size(), subscriber3.getOnNextEvents().size());
+        }
+
     // ---- helpers ---------------------------------------------------------
 
     public static InvocableMap.EntryProcessor<Integer, Integer, Integer> square()
         {
         return entry -> entry.getValue() * entry.getValue();
         }
+
+    public static InvocableMap.EntryProcessor<Integer, Integer, Integer> negate()
+        {
+        return entry ->
+            {
+            entry.setValue(-entry.getValue());
+            return entry.getValue();
+            };
+        }
     }